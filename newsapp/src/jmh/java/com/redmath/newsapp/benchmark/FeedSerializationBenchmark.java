@@ -0,0 +1,98 @@
+package com.redmath.newsapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsJsonCache;
+import com.redmath.newsapp.news.NewsPageMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writing one feed page: Jackson over the whole page, as before NewsPageMessageConverter, against the
+// converter copying cached fragments. With editedEvery one article changes every that many writes, so its
+// fragment misses and is serialized again; at 0 every fragment hits. Run with -prof gc for allocation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"0", "20"})
+    private int editedEvery;
+
+    private ObjectMapper objectMapper;
+    private NewsPageMessageConverter converter;
+    private NewsPageResponse page;
+    private List<NewsResponse> news;
+    private Output output;
+    private long writes;
+
+    // reuses one buffer, so only the serialization allocates
+    private static class Output implements HttpOutputMessage {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // configured like the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = new NewsPageMessageConverter(new NewsJsonCache(objectMapper, 10_000), objectMapper);
+        NewsDataGenerator generator = new NewsDataGenerator(42);
+        news = new ArrayList<>();
+        for (long id = pageSize; id >= 1; id--) {
+            news.add(generator.response(generator.article(id, 20, 50)));
+        }
+        NewsResponse last = news.get(news.size() - 1);
+        page = NewsPageResponse.builder().news(news).nextCursor(NewsCursor.after(last).encode()).build();
+        output = new Output();
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        output.body.reset();
+        edit();
+        objectMapper.writeValue(output.body, page);
+        return output.body.size();
+    }
+
+    @Benchmark
+    public int fragments() throws IOException {
+        output.body.reset();
+        edit();
+        converter.write(page, MediaType.APPLICATION_JSON, output);
+        return output.body.size();
+    }
+
+    private void edit() {
+        if (editedEvery > 0 && ++writes % editedEvery == 0) {
+            news.get((int) (writes / editedEvery % news.size())).setUpdatedAt("2026-01-01T00:00:00." + writes);
+        }
+    }
+}
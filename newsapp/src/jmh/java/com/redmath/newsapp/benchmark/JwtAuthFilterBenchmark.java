@@ -0,0 +1,87 @@
+package com.redmath.newsapp.benchmark;
+
+import com.redmath.newsapp.security.JwtAuthFilter;
+import com.redmath.newsapp.security.JwtUtils;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserPrincipalCache;
+import com.redmath.newsapp.user.UserRepository;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// The filter as a request meets it: header check, claims, principal lookup and the SecurityContext,
+// with a chain that only hands the authentication to the blackhole. The repository is a plain proxy
+// so no mocking framework runs on the measured path; userCacheTtlMs=0 makes every request load the user.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"0", "10000"})
+    private int claimsCacheSize;
+
+    @Param({"0", "300000"})
+    private long userCacheTtlMs;
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "YourSecretKeyHere12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", "86400000");
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", claimsCacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        User user = User.builder().id(1L).name("Editor").email("editor@example.com").password("hash").role(Role.EDITOR).build();
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEmail" -> user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        UserPrincipalCache userPrincipalCache = new UserPrincipalCache(userRepository);
+        ReflectionTestUtils.setField(userPrincipalCache, "maxSize", 10000);
+        ReflectionTestUtils.setField(userPrincipalCache, "ttlMs", userCacheTtlMs);
+        ReflectionTestUtils.invokeMethod(userPrincipalCache, "init");
+
+        filter = new JwtAuthFilter(jwtUtils, userPrincipalCache);
+        authenticated = new MockHttpServletRequest("GET", "/news/my");
+        authenticated.addHeader("Authorization", "Bearer " + jwtUtils.generateToken(user));
+        anonymous = new MockHttpServletRequest("GET", "/news");
+        response = new MockHttpServletResponse();
+        chain = (request, response) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Benchmark
+    public void authenticatedRequest() throws Exception {
+        try {
+            filter.doFilter(authenticated, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void anonymousRequest() throws Exception {
+        filter.doFilter(anonymous, response, chain);
+    }
+}
@@ -0,0 +1,133 @@
+package com.redmath.newsapp.benchmark;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.MarkdownRenderer;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.user.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Synthetic newsroom data for the benchmarks. Article n is the same for every seed-and-size combination,
+// so a 10k corpus is the first 10k articles of the 100k one and results stay comparable between runs.
+// Words are drawn from a Zipf distribution over a made-up vocabulary, as in real text, so search sees
+// both very common and rare terms; ids grow with createdAt like articles posted one after another.
+public class NewsDataGenerator {
+
+    public record Article(long id, String title, String content, int category, int editor, LocalDateTime createdAt) {
+    }
+
+    public static final int VOCABULARY = 20_000;
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "ta", "ve", "so", "di", "pa",
+            "ge", "bo", "fi", "lu", "ze", "ha", "ri", "mo", "na", "te"};
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 1000;
+
+    private final long seed;
+    private final String[] words = new String[VOCABULARY];
+    private final double[] cumulative = new double[VOCABULARY];
+
+    public NewsDataGenerator(long seed) {
+        this.seed = seed;
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            words[rank] = spell(rank);
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+    }
+
+    // the word of the given frequency rank, 0 being the most common
+    public String word(int rank) {
+        return words[rank];
+    }
+
+    public Article article(long id, int categories, int editors) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + id);
+        String title = sentence(random, 6 + random.nextInt(5));
+        StringBuilder content = new StringBuilder();
+        int paragraphs = 3 + random.nextInt(3);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                content.append("\n\n");
+            }
+            content.append(sentence(random, 30 + random.nextInt(20))).append('.');
+        }
+        LocalDateTime createdAt = START.plusSeconds(id * 300 + random.nextInt(300));
+        return new Article(id, title, content.toString(), random.nextInt(categories), random.nextInt(editors), createdAt);
+    }
+
+    public NewsResponse response(Article article) {
+        return new NewsResponse(article.id(), article.title(), excerpt(article.content()), "Category " + (article.category() + 1),
+                "Editor " + (article.editor() + 1), article.createdAt(), article.createdAt());
+    }
+
+    // Inserts the categories, editors and articles 1..articles into an empty schema with JDBC batches,
+    // then moves news_seq past them so articles created through the app get fresh ids
+    public void seed(JdbcTemplate jdbcTemplate, NewsBodyCodec codec, int articles, int categories, int editors) {
+        for (int c = 1; c <= categories; c++) {
+            jdbcTemplate.update("insert into category (name) values (?)", "Category " + c);
+        }
+        for (int e = 1; e <= editors; e++) {
+            jdbcTemplate.update("insert into users (name, email, password, role) values (?, ?, ?, ?)",
+                    "Editor " + e, "editor" + e + "@example.com", "not-a-login", Role.EDITOR.ordinal());
+        }
+        long[] categoryIds = jdbcTemplate.queryForList("select id from category order by id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long[] editorIds = jdbcTemplate.queryForList("select id from users order by id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+
+        for (long from = 1; from <= articles; from += BATCH_SIZE) {
+            List<Object[]> news = new ArrayList<>(BATCH_SIZE);
+            List<Object[]> bodies = new ArrayList<>(BATCH_SIZE);
+            for (long id = from; id < Math.min(articles + 1, from + BATCH_SIZE); id++) {
+                Article article = article(id, categoryIds.length, editorIds.length);
+                NewsBodyCodec.Encoded body = codec.encode(article.content());
+                NewsBodyCodec.Encoded html = codec.encode(html(article.content()));
+                news.add(new Object[]{id, article.title(), codec.excerpt(article.content()), article.createdAt(),
+                        article.createdAt(), categoryIds[article.category()], editorIds[article.editor()]});
+                bodies.add(new Object[]{id, body.data(), body.compressed(), html.data(), html.compressed(), MarkdownRenderer.VERSION});
+            }
+            jdbcTemplate.batchUpdate("insert into news (id, title, excerpt, created_at, updated_at, view_count, category_id, " +
+                    "posted_by_id) values (?, ?, ?, ?, ?, 0, ?, ?)", news);
+            jdbcTemplate.batchUpdate("insert into news_body (news_id, data, compressed, html, html_compressed, render_version) " +
+                    "values (?, ?, ?, ?, ?, ?)", bodies);
+        }
+        jdbcTemplate.execute("alter sequence news_seq restart with " + (articles + 1));
+    }
+
+    private String sentence(SplittableRandom random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[VOCABULARY - 1]);
+            sentence.append(words[Math.min(VOCABULARY - 1, rank < 0 ? -rank - 1 : rank)]);
+        }
+        sentence.setCharAt(0, Character.toUpperCase(sentence.charAt(0)));
+        return sentence.toString();
+    }
+
+    // every word ends in a vowel, so the search stemmer leaves them alone
+    private static String spell(int rank) {
+        StringBuilder word = new StringBuilder();
+        for (int n = rank + SYLLABLES.length; n > 0; n /= SYLLABLES.length) {
+            word.append(SYLLABLES[n % SYLLABLES.length]);
+        }
+        return word.toString();
+    }
+
+    private static String excerpt(String content) {
+        return content.length() <= 200 ? content : content.substring(0, 200);
+    }
+
+    private static String html(String content) {
+        return "<p>" + content.replace("\n\n", "</p>\n<p>") + "</p>\n";
+    }
+}
@@ -0,0 +1,99 @@
+package com.redmath.newsapp.benchmark;
+
+import com.redmath.newsapp.Application;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsSearchResponse;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsService;
+import com.redmath.newsapp.news.NewsTimelines;
+import com.redmath.newsapp.search.NewsSearchIndexer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// The public feed and search through NewsService, with the whole application context running on an
+// in-memory H2 seeded by NewsDataGenerator. The first page is served by the in-memory timeline, a page
+// past it goes to the database with a keyset query; search ranks with the in-memory index and loads
+// the page of hits from the database. The replica is off so reads see the seeded rows straight away.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NewsServiceBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int EDITORS = 50;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int articles;
+
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private String pastTimeline;
+    private String commonTerm;
+    private String rareTerm;
+    private String twoTerms;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                // as arguments, so they win over application.yaml
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--app.replica.enabled=false",
+                        "--logging.level.root=WARN");
+
+        NewsDataGenerator generator = new NewsDataGenerator(42);
+        generator.seed(context.getBean(JdbcTemplate.class), context.getBean(NewsBodyCodec.class), articles, CATEGORIES, EDITORS);
+        // the read models were built at startup from the empty database
+        context.getBean(NewsTimelines.class).warmUp();
+        context.getBean(NewsSearchIndexer.class).rebuild();
+        newsService = context.getBean(NewsService.class);
+
+        // the newest articles are the highest ids, so this cursor is well past the timeline's capacity
+        NewsDataGenerator.Article older = generator.article(articles - 500, CATEGORIES, EDITORS);
+        pastTimeline = new NewsCursor(older.createdAt(), older.id()).encode();
+        commonTerm = generator.word(0);
+        rareTerm = generator.word(5000);
+        twoTerms = generator.word(10) + " " + generator.word(200);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NewsPageResponse firstPage() {
+        return newsService.getAllNews(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public NewsPageResponse pastTimeline() {
+        return newsService.getAllNews(pastTimeline, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public NewsSearchResponse searchCommonTerm() {
+        return newsService.searchNews(commonTerm, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public NewsSearchResponse searchRareTerm() {
+        return newsService.searchNews(rareTerm, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public NewsSearchResponse searchTwoTerms() {
+        return newsService.searchNews(twoTerms, 0, PAGE_SIZE);
+    }
+}
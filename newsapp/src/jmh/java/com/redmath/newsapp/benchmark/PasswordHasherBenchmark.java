@@ -0,0 +1,96 @@
+package com.redmath.newsapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.auth.PasswordHasher;
+import com.redmath.newsapp.auth.PasswordHasherBusyException;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsTimeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Sign-ups and feed reads sharing a pool of request threads, as in Tomcat. Eight clients register back to
+// back while one reads the first page of the feed; the read latency is what a visitor sees during a sign-up
+// burst. With pooled=false bcrypt runs on the request thread as before PasswordHasher, so reads wait for a
+// thread to finish hashing; with pooled=true the request thread hands the work to PasswordHasher and is free.
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+    private static final int REQUEST_THREADS = 8;
+    private static final int BCRYPT_COST = 10;
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    private ExecutorService requestThreads;
+    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    private NewsTimeline timeline;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        passwordEncoder = new BCryptPasswordEncoder(BCRYPT_COST);
+        passwordHasher = new PasswordHasher(passwordEncoder, BCRYPT_COST, 0, 64, new SimpleMeterRegistry());
+        NewsDataGenerator generator = new NewsDataGenerator(42);
+        List<NewsResponse> newest = LongStream.iterate(200, id -> id >= 1, id -> id - 1)
+                .mapToObj(id -> generator.response(generator.article(id, 20, 50))).toList();
+        timeline = new NewsTimeline(200, newest);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        passwordHasher.shutdown();
+    }
+
+    // a rejected sign-up is answered with 503 at once, which is the point of the bounded queue
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public Object register() {
+        CompletableFuture<String> hash = CompletableFuture.supplyAsync(() -> pooled ? passwordHasher.encode(PASSWORD)
+                : CompletableFuture.completedFuture(passwordEncoder.encode(PASSWORD)), requestThreads).thenCompose(future -> future);
+        try {
+            return hash.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PasswordHasherBusyException busy) {
+                return busy;
+            }
+            throw e;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public byte[] read() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return objectMapper.writeValueAsBytes(timeline.page(null, 20).orElseThrow());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, requestThreads).join();
+    }
+}
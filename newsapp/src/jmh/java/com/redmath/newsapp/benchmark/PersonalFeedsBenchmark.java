@@ -0,0 +1,185 @@
+package com.redmath.newsapp.benchmark;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.feed.CategorySubscriberCount;
+import com.redmath.newsapp.feed.CategorySubscriptionRepository;
+import com.redmath.newsapp.feed.PersonalFeeds;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsTimelines;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
+
+// PersonalFeeds for 1M users over 50 categories. Each user follows 1 to 10 categories drawn from a Zipf
+// distribution, so a few categories are followed by most users and the tail by a few thousand each.
+// The repositories are plain proxies over 10k generated articles; the timelines of the first maxTimelines
+// users are built before measuring, as after a busy hour. popularThreshold moves the categories between
+// push and pull: at 10k all of them are pulled on read, at 100k the 11 largest are, at 1M none are.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PersonalFeedsBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int CATEGORIES = 50;
+    private static final int EDITORS = 50;
+    private static final int ARTICLES = 10_000;
+    private static final int MAX_TIMELINES = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private long popularThreshold;
+
+    private final double[] cumulative = new double[CATEGORIES];
+    private final List<NewsResponse> newest = new ArrayList<>();
+    private final List<Long> newestCategories = new ArrayList<>();
+    private NewsDataGenerator generator;
+    private PersonalFeeds personalFeeds;
+    private SplittableRandom random;
+    private long activeUser;
+    private long nextArticle;
+
+    @Setup
+    public void setUp() {
+        double total = 0;
+        for (int rank = 0; rank < CATEGORIES; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        generator = new NewsDataGenerator(42);
+        for (long id = ARTICLES; id >= 1; id--) {
+            NewsDataGenerator.Article article = generator.article(id, CATEGORIES, EDITORS);
+            newest.add(generator.response(article));
+            newestCategories.add(article.category() + 1L);
+        }
+        long[] subscribers = new long[CATEGORIES + 1];
+        for (long userId = 1; userId <= USERS; userId++) {
+            categories(userId).forEach(categoryId -> subscribers[categoryId.intValue()]++);
+        }
+
+        NewsRepository newsRepository = stub(NewsRepository.class, (method, args) -> switch (method) {
+            case "findCategoriesFeed" -> feed((Collection<?>) args[0], (LocalDateTime) args[1], (Long) args[2], (Limit) args[3]);
+            case "findCategoryFeed" -> feed(List.of(args[0]), (LocalDateTime) args[1], (Long) args[2], (Limit) args[3]);
+            case "findFeed" -> newest.subList(0, ((Limit) args[2]).max());
+            default -> throw new UnsupportedOperationException(method);
+        });
+        CategoryRepository categoryRepository = stub(CategoryRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> LongStream.rangeClosed(1, CATEGORIES)
+                    .mapToObj(id -> Category.builder().id(id).name("Category " + id).build()).toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        CategorySubscriptionRepository subscriptionRepository = stub(CategorySubscriptionRepository.class, (method, args) -> switch (method) {
+            case "findCategoryIdsByUserId" -> categories((Long) args[0]);
+            case "countByCategory" -> LongStream.rangeClosed(1, CATEGORIES)
+                    .mapToObj(id -> new CategorySubscriberCount(id, subscribers[(int) id])).toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        NewsTimelines newsTimelines = new NewsTimelines(newsRepository, categoryRepository);
+        ReflectionTestUtils.setField(newsTimelines, "capacity", 200);
+        newsTimelines.warmUp();
+        personalFeeds = new PersonalFeeds(subscriptionRepository, newsRepository, newsTimelines);
+        ReflectionTestUtils.setField(personalFeeds, "capacity", 100);
+        ReflectionTestUtils.setField(personalFeeds, "maxTimelines", MAX_TIMELINES);
+        ReflectionTestUtils.setField(personalFeeds, "popularThreshold", popularThreshold);
+        ReflectionTestUtils.invokeMethod(personalFeeds, "init");
+        personalFeeds.loadSubscriberCounts();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        for (long userId = 1; userId <= MAX_TIMELINES; userId++) {
+            personalFeeds.page(userId, null, PAGE_SIZE);
+        }
+        System.gc();
+        long heap = runtime.totalMemory() - runtime.freeMemory() - before;
+        long popular = LongStream.rangeClosed(1, CATEGORIES).filter(personalFeeds::isPopular).count();
+        System.out.printf("%n%d popular categories, %d timelines in %d MB (%d bytes per timeline)%n",
+                popular, personalFeeds.size(), heap >> 20, heap / MAX_TIMELINES);
+
+        random = new SplittableRandom(7);
+        nextArticle = ARTICLES;
+    }
+
+    // a reader whose timeline is in memory
+    @Benchmark
+    public NewsPageResponse activeReader() {
+        activeUser = activeUser % MAX_TIMELINES + 1;
+        return personalFeeds.page(activeUser, null, PAGE_SIZE);
+    }
+
+    // any of the 1M users, so nine reads in ten build a timeline and evict the least recently read one
+    @Benchmark
+    public NewsPageResponse anyReader() {
+        return personalFeeds.page(random.nextLong(USERS) + 1, null, PAGE_SIZE);
+    }
+
+    // an editor publishing: pushed into every loaded timeline following an ordinary category
+    @Benchmark
+    public void publish() {
+        NewsDataGenerator.Article article = generator.article(++nextArticle, CATEGORIES, EDITORS);
+        personalFeeds.onNewsChanged(NewsChangedEvent.created(article.category() + 1L, generator.response(article), article.content()));
+    }
+
+    private List<Long> categories(long userId) {
+        SplittableRandom follows = new SplittableRandom(userId);
+        int count = 1 + follows.nextInt(10);
+        List<Long> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, follows.nextDouble() * cumulative[CATEGORIES - 1]);
+            long categoryId = Math.min(CATEGORIES - 1, rank < 0 ? -rank - 1 : rank) + 1;
+            if (!categories.contains(categoryId)) {
+                categories.add(categoryId);
+            }
+        }
+        return categories;
+    }
+
+    // the database's answer to a categories feed query: newest first, before the cursor if there is one
+    private List<NewsResponse> feed(Collection<?> categoryIds, LocalDateTime beforeTime, Long beforeId, Limit limit) {
+        NewsCursor cursor = beforeTime != null ? new NewsCursor(beforeTime, beforeId) : null;
+        List<NewsResponse> page = new ArrayList<>(limit.max());
+        for (int i = 0; i < newest.size() && page.size() < limit.max(); i++) {
+            NewsResponse news = newest.get(i);
+            if (categoryIds.contains(newestCategories.get(i)) && (cursor == null || isBefore(news, cursor))) {
+                page.add(news);
+            }
+        }
+        return page;
+    }
+
+    private static boolean isBefore(NewsResponse news, NewsCursor cursor) {
+        NewsCursor position = NewsCursor.after(news);
+        int byTime = position.createdAt().compareTo(cursor.createdAt());
+        return byTime < 0 || byTime == 0 && position.id() < cursor.id();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> type.getSimpleName() + " stub";
+            default -> methods.apply(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.redmath.newsapp.benchmark;
+
+import com.redmath.newsapp.search.SearchDocument;
+import com.redmath.newsapp.search.SearchHits;
+import com.redmath.newsapp.search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// SearchIndex on its own, without the database or the page load NewsServiceBenchmark includes, so it can
+// go to corpus sizes H2 would take too long to seed. The index is built once per fork and its heap is
+// printed, since that is what limits the corpus size long before query time does: about 20 KB per
+// generated article, so the fork asks for the 24 GB a million need. On a smaller machine run
+// -p articles=100000 -jvmArgsAppend -Xmx4g.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx24g")
+public class SearchIndexBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int EDITORS = 50;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    private int articles;
+
+    private SearchIndex index;
+    private SearchDocument edited;
+    private String commonTerm;
+    private String rareTerm;
+    private String twoTerms;
+
+    @Setup
+    public void setUp() {
+        NewsDataGenerator generator = new NewsDataGenerator(42);
+        index = new SearchIndex(3.0f, 1.2f, 0.75f);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        long started = System.currentTimeMillis();
+        for (long id = 1; id <= articles; id++) {
+            NewsDataGenerator.Article article = generator.article(id, CATEGORIES, EDITORS);
+            index.index(new SearchDocument(id, article.title(), article.content()));
+        }
+        long built = System.currentTimeMillis() - started;
+        System.gc();
+        long heap = runtime.totalMemory() - runtime.freeMemory() - before;
+        System.out.printf("%n%d articles indexed in %d ms, index heap %d MB (%d bytes per article)%n",
+                articles, built, heap >> 20, heap / articles);
+
+        NewsDataGenerator.Article article = generator.article(articles / 2, CATEGORIES, EDITORS);
+        edited = new SearchDocument(article.id(), article.title(), article.content());
+        commonTerm = generator.word(0);
+        rareTerm = generator.word(5000);
+        twoTerms = generator.word(10) + " " + generator.word(200);
+    }
+
+    @Benchmark
+    public SearchHits commonTerm() {
+        return index.search(commonTerm, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchHits rareTerm() {
+        return index.search(rareTerm, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchHits twoTerms() {
+        return index.search(twoTerms, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchHits deepPage() {
+        return index.search(twoTerms, 1000, PAGE_SIZE);
+    }
+
+    // what NewsSearchIndexer does for every saved article: the old postings go, the new ones come in
+    @Benchmark
+    public void reindexArticle() {
+        index.index(edited);
+    }
+}
@@ -7,44 +7,64 @@ import com.redmath.newsapp.security.JwtUtils;
 import com.redmath.newsapp.user.Role;
 import com.redmath.newsapp.user.User;
 import com.redmath.newsapp.user.UserRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    // saving and signing the token wait on the database, so they run here and never hold a hasher thread
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public AuthResponse register(RegisterRequest request)
+    // bcrypt runs on the hasher pool; the request thread is released while it works
+    public CompletableFuture<AuthResponse> register(RegisterRequest request)
     {
         if(userRepo.existsByEmail(request.getEmail()))
         {
             throw new RuntimeException("email already in use");
         }
 
-        User user= User.builder().email(request.getEmail()).name(request.getName()).password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole()!=null?request.getRole(): Role.USER).build();
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(hash -> {
+            User user= User.builder().email(request.getEmail()).name(request.getName()).password(hash)
+                    .role(request.getRole()!=null?request.getRole(): Role.USER).build();
 
-        userRepo.save(user);
+            userRepo.save(user);
 
-        String token=jwtUtils.generateToken(user);
-        return AuthResponse.builder().token(token).build();
+            String token=jwtUtils.generateToken(user);
+            return AuthResponse.builder().token(token).build();
+        }, executor);
     }
 
-    public AuthResponse login(LoginRequest request){
-        //authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(),request.getPassword())); //authenticates the user credentials but doesnot return user object
-
+    public CompletableFuture<AuthResponse> login(LoginRequest request){
         User user=userRepo.findByEmail(request.getEmail()).orElseThrow(()->new RuntimeException("Invalid User Credentials(Email)"));
 
-        String token=jwtUtils.generateToken(user);
+        return passwordHasher.verify(request.getPassword(), user.getPassword()).thenApplyAsync(verification -> {
+            if (!verification.matches()) {
+                throw new RuntimeException("Invalid User Credentials(Password)");
+            }
+            if (verification.rehash() != null) {
+                user.setPassword(verification.rehash());
+                userRepo.save(user);
+            }
 
-        return AuthResponse.builder().token(token).build();
+            String token=jwtUtils.generateToken(user);
+            return AuthResponse.builder().token(token).build();
+        }, executor);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 }
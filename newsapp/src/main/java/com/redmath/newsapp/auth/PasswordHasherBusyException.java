@@ -0,0 +1,11 @@
+package com.redmath.newsapp.auth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHasherBusyException extends RuntimeException {
+    public PasswordHasherBusyException() {
+        super("Too many sign-in requests, try again shortly");
+    }
+}
@@ -0,0 +1,137 @@
+package com.redmath.newsapp.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+// Bounded map that evicts the least recently used entry once full.
+// Large caches are split by key hash into segments, each an access-ordered LinkedHashMap behind its own lock,
+// so lookups of different keys rarely wait on each other; recency is then kept per segment.
+// onEvict sees the entries dropped to make room, not the ones removed by the caller.
+public class LruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    // caches smaller than this many entries per segment keep a single segment and an exact LRU order
+    private static final int MIN_SEGMENT_SIZE = 256;
+
+    private final Segment<K, V>[] segments;
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, (key, value) -> {
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public LruCache(int maxEntries, BiConsumer<K, V> onEvict) {
+        int capacity = Math.max(0, maxEntries);
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, capacity / MIN_SEGMENT_SIZE));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity / count + (i < capacity % count ? 1 : 0), onEvict);
+        }
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public V remove(K key) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    public boolean remove(K key, V value) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            return segment.remove(key, value);
+        }
+    }
+
+    public void removeIf(BiPredicate<K, V> filter) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entrySet().removeIf(entry -> filter.test(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    // copies, so callers can act on entries without holding a segment lock
+    public List<K> keys() {
+        List<K> keys = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                keys.addAll(segment.keySet());
+            }
+        }
+        return keys;
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                values.addAll(segment.values());
+            }
+        }
+        return values;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode();
+        return segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int maxEntries;
+        private final BiConsumer<K, V> onEvict;
+
+        Segment(int maxEntries, BiConsumer<K, V> onEvict) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.onEvict = onEvict;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            onEvict.accept(eldest.getKey(), eldest.getValue());
+            return true;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.redmath.newsapp.category;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -26,6 +27,7 @@ public class CategoryService {
         categoryRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Category> getAll() {
         return categoryRepository.findAll();
     }
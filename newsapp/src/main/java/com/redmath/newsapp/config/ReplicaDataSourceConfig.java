@@ -0,0 +1,61 @@
+package com.redmath.newsapp.config;
+
+import com.redmath.newsapp.replica.H2Replicator;
+import com.redmath.newsapp.replica.ReplicaRouting;
+import com.redmath.newsapp.replica.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Splits reads from writes: read-only service transactions use the replica, everything else the primary.
+// Locally the replica is a second H2 database filled by H2Replicator.
+@Configuration
+@ConditionalOnProperty(name = "app.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource replicaDataSource(@Value("${app.replica.url}") String url,
+                                              @Value("${app.replica.username:sa}") String username,
+                                              @Value("${app.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Value("${app.replica.sticky-ms:5000}") long stickyMs) {
+        return new ReplicaRouting(stickyMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting routing) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary, replica, routing));
+    }
+
+    @Bean
+    public H2Replicator h2Replicator(@Qualifier("primaryDataSource") DataSource primary,
+                                     @Qualifier("replicaDataSource") DataSource replica,
+                                     ReplicaRouting routing) {
+        return new H2Replicator(primary, replica, routing);
+    }
+}
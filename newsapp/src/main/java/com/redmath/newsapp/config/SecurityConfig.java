@@ -1,8 +1,11 @@
 package com.redmath.newsapp.config;
 
+import com.redmath.newsapp.security.AuthRateLimitFilter;
 import com.redmath.newsapp.security.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.*;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -19,6 +22,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -33,17 +37,24 @@ public class SecurityConfig {
                         "/news",
                         "/news/category/**",
                         "/news/editor/**",
-                        "/news/search"
-                ).permitAll().anyRequest().authenticated()).
+                        "/news/search",
+                        "/news/trending",
+                        "/news/stream",
+                        "/news/rss"
+                ).permitAll().
+                        requestMatchers(HttpMethod.GET, "/news/{id:\\d+}", "/news/{id:\\d+}/related").permitAll().
+                        requestMatchers("/admin/**").hasRole("ADMIN").
+                        anyRequest().authenticated()).
                 sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS)).
+                addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class).
                 addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
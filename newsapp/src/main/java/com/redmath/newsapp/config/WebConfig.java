@@ -0,0 +1,30 @@
+package com.redmath.newsapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.news.NewsJsonCache;
+import com.redmath.newsapp.news.NewsPageMessageConverter;
+import com.redmath.newsapp.profiling.TimedJsonHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final NewsJsonCache newsJsonCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // ahead of Jackson so feed pages are written from cached fragments
+        converters.add(0, new NewsPageMessageConverter(newsJsonCache, objectMapper));
+        // the same Jackson converter, recording a JFR event per response body
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new TimedJsonHttpMessageConverter(objectMapper) : converter);
+    }
+}
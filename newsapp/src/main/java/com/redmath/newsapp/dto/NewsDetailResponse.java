@@ -0,0 +1,21 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NewsDetailResponse {
+    private Long id;
+    private String title;
+    // Markdown source and the sanitized HTML rendered from it
+    private String content;
+    private String html;
+    private String categoryName;
+    private String editorName;
+    private String createdAt;
+    private String updatedAt;
+    // set on create when the article was flagged as a near-duplicate
+    private Long duplicateOf;
+}
@@ -0,0 +1,14 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NewsPageResponse {
+    private List<NewsResponse> news;
+    private String nextCursor;
+}
@@ -2,6 +2,8 @@ package com.redmath.newsapp.dto;
 
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,9 +11,15 @@ import lombok.*;
 public class NewsResponse {
     private Long id;
     private String title;
-    private String content;
+    private String excerpt;
     private String categoryName;
     private String editorName;
     private String createdAt;
     private String updatedAt;
+
+    // used by the JPQL constructor projections in NewsRepository
+    public NewsResponse(Long id, String title, String excerpt, String categoryName, String editorName,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, excerpt, categoryName, editorName, createdAt.toString(), updatedAt.toString());
+    }
 }
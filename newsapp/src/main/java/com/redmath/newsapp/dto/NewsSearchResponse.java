@@ -0,0 +1,16 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NewsSearchResponse {
+    private List<NewsResponse> news;
+    private long total;
+    private int page;
+    private int size;
+}
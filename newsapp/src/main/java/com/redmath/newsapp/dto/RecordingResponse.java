@@ -0,0 +1,17 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordingResponse {
+    private String name;
+    private String state;
+    private String settings;
+    private String startedAt;
+    // the file written by a dump or stop, fetched from /admin/jfr/files/{file}
+    private String file;
+    private Long fileSize;
+}
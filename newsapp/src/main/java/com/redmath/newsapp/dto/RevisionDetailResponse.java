@@ -0,0 +1,14 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevisionDetailResponse {
+    private int revision;
+    private String title;
+    private String content;
+    private String createdAt;
+}
@@ -0,0 +1,26 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevisionDiffResponse {
+    private int from;
+    private int to;
+    private String fromTitle;
+    private String toTitle;
+    // the text of `to` as runs of EQUAL, DELETE and INSERT against `from`
+    private List<Change> changes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private String op;
+        private String text;
+    }
+}
@@ -0,0 +1,21 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevisionResponse {
+    private int revision;
+    private String title;
+    private boolean snapshot;
+    private String createdAt;
+
+    // used by the JPQL constructor projection in NewsRevisionRepository
+    public RevisionResponse(int revision, String title, boolean snapshot, LocalDateTime createdAt) {
+        this(revision, title, snapshot, createdAt != null ? createdAt.toString() : null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.redmath.newsapp.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSummaryResponse {
+    private Long id;
+    private String name;
+    private String email;
+}
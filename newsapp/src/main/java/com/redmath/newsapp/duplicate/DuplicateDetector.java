@@ -0,0 +1,48 @@
+package com.redmath.newsapp.duplicate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Applies app.duplicates.policy to a new article: FLAG records which article it repeats, REJECT refuses it, OFF skips the check.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicateDetector {
+
+    public enum Policy {
+        OFF,
+        FLAG,
+        REJECT
+    }
+
+    private final SimHashIndex simHashIndex;
+
+    @Value("${app.duplicates.policy:FLAG}")
+    private Policy policy;
+
+    @Value("${app.duplicates.min-terms:20}")
+    private int minTerms;
+
+    // the id of the article this one repeats, or null; terms is how many the hash was made of
+    public Long check(long simHash, int terms) {
+        // while the index warms up after startup an empty index would miss everything, so nothing is checked
+        if (policy == Policy.OFF || !simHashIndex.isReady()) {
+            return null;
+        }
+        // stubs and empty bodies hash to 0 or near it, so unrelated short articles would all look alike
+        if (terms < minTerms) {
+            return null;
+        }
+        SimHashIndex.Match match = simHashIndex.nearest(simHash);
+        if (match == null) {
+            return null;
+        }
+        if (policy == Policy.REJECT) {
+            throw new DuplicateNewsException(match.id());
+        }
+        log.info("new article is a near-duplicate of {} ({} bits apart)", match.id(), match.distance());
+        return match.id();
+    }
+}
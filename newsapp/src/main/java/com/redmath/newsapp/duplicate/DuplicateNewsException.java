@@ -0,0 +1,11 @@
+package com.redmath.newsapp.duplicate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateNewsException extends RuntimeException {
+    public DuplicateNewsException(long originalId) {
+        super("Near-duplicate of news article " + originalId);
+    }
+}
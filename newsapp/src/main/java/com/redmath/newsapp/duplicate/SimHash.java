@@ -0,0 +1,61 @@
+package com.redmath.newsapp.duplicate;
+
+import com.redmath.newsapp.search.TextAnalyzer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Charikar's 64-bit SimHash: every analyzed term votes on each bit with its count, signed by that bit of its own hash.
+// Texts sharing most of their terms end up a few bits apart, unrelated texts about 32 bits apart.
+public final class SimHash {
+
+    private SimHash() {
+    }
+
+    public static long of(String text) {
+        return of(TextAnalyzer.analyze(text));
+    }
+
+    // a text with no terms hashes to 0 and one with a few lands close to their hashes, see DuplicateDetector
+    public static long of(List<String> terms) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : terms) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        int[] votes = new int[64];
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            long hash = hash(entry.getKey());
+            int count = entry.getValue();
+            for (int bit = 0; bit < 64; bit++) {
+                votes[bit] += (hash >>> bit & 1) != 0 ? count : -count;
+            }
+        }
+        long simHash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return simHash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // FNV-1a over the chars, then the murmur3 finalizer so every input bit reaches every output bit
+    static long hash(String term) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < term.length(); i++) {
+            hash ^= term.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
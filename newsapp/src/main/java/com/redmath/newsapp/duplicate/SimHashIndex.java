@@ -0,0 +1,103 @@
+package com.redmath.newsapp.duplicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// SimHashes of the most recent articles, split into maxDistance + 1 bands of bits.
+// Two hashes at most maxDistance bits apart agree on at least one whole band, so looking up the bands of a hash
+// finds every near-duplicate while only comparing the few hashes that share a band with it.
+@Component
+public class SimHashIndex {
+
+    public record Match(long id, int distance) {
+    }
+
+    private final int maxDistance;
+    private final int window;
+    private final int[] bandStart;
+    private final List<Map<Long, List<Long>>> bands = new ArrayList<>();
+    // insertion order, so the oldest article is evicted first
+    private final LinkedHashMap<Long, Long> hashes = new LinkedHashMap<>();
+    // false until SimHashIndexer has loaded the stored hashes after startup
+    private volatile boolean ready;
+
+    public SimHashIndex(@Value("${app.duplicates.max-distance:3}") int maxDistance,
+                        @Value("${app.duplicates.window:100000}") int window) {
+        this.maxDistance = maxDistance;
+        this.window = window;
+        int bandCount = maxDistance + 1;
+        bandStart = new int[bandCount + 1];
+        for (int band = 0; band <= bandCount; band++) {
+            bandStart[band] = band * 64 / bandCount;
+        }
+        for (int band = 0; band < bandCount; band++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    // the closest article within maxDistance, the older one on a tie
+    public synchronized Match nearest(long simHash) {
+        Match best = null;
+        for (int band = 0; band < bands.size(); band++) {
+            for (long id : bands.get(band).getOrDefault(key(simHash, band), List.of())) {
+                int distance = SimHash.distance(simHash, hashes.get(id));
+                if (distance <= maxDistance && (best == null || distance < best.distance()
+                        || distance == best.distance() && id < best.id())) {
+                    best = new Match(id, distance);
+                }
+            }
+        }
+        return best;
+    }
+
+    public synchronized void add(long id, long simHash) {
+        remove(id);
+        hashes.put(id, simHash);
+        for (int band = 0; band < bands.size(); band++) {
+            bands.get(band).computeIfAbsent(key(simHash, band), key -> new ArrayList<>(1)).add(id);
+        }
+        if (hashes.size() > window) {
+            Iterator<Long> oldest = hashes.keySet().iterator();
+            remove(oldest.next());
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Long simHash = hashes.remove(id);
+        if (simHash == null) {
+            return;
+        }
+        for (int band = 0; band < bands.size(); band++) {
+            long key = key(simHash, band);
+            List<Long> ids = bands.get(band).get(key);
+            ids.remove(Long.valueOf(id));
+            if (ids.isEmpty()) {
+                bands.get(band).remove(key);
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public synchronized int size() {
+        return hashes.size();
+    }
+
+    private long key(long simHash, int band) {
+        int width = bandStart[band + 1] - bandStart[band];
+        return simHash >>> bandStart[band] & (1L << width) - 1;
+    }
+}
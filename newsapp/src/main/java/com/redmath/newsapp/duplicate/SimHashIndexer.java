@@ -0,0 +1,145 @@
+package com.redmath.newsapp.duplicate;
+
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsText;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fills SimHashIndex with the stored hashes of the newest articles and keeps it current as articles change.
+// Loading runs on its own thread after startup; the index counts as warming, and new articles go unchecked,
+// until the first load is done. Changes committed during a load are replayed after it, since the hashes it
+// read may predate them.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimHashIndexer {
+
+    private final SimHashIndex simHashIndex;
+    private final NewsRepository newsRepository;
+    private final NewsBodyCodec newsBodyCodec;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.duplicates.window:100000}")
+    private int window;
+
+    @Value("${app.duplicates.backfill-batch-size:1000}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("duplicate-index").factory());
+    // set while a load waits to start, so requests arriving together run it once
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ReentrantLock loading = new ReentrantLock();
+    // non-null while a load runs; guarded by this
+    private List<NewsChangedEvent> missed;
+
+    @EventListener({ApplicationReadyEvent.class, NewsImportedEvent.class})
+    public void requestLoad() {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            queued.set(false);
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.warn("duplicate index load failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    // interrupts the backfill between batches; hashes not computed yet are picked up on the next start
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void load() {
+        loading.lock();
+        try {
+            loadIndex();
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    private void loadIndex() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            missed = new ArrayList<>();
+        }
+        int backfilled = backfill();
+        if (Thread.currentThread().isInterrupted()) {
+            synchronized (this) {
+                missed = null;
+            }
+            return;
+        }
+
+        // newest first through the primary key, added oldest first so eviction order stays right
+        List<long[]> recent = jdbcTemplate.query("select id, simhash from news where simhash is not null order by id desc limit ?",
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)}, window);
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            simHashIndex.add(recent.get(i)[0], recent.get(i)[1]);
+        }
+        synchronized (this) {
+            missed.forEach(this::apply);
+            missed = null;
+        }
+        simHashIndex.markReady();
+        log.info("duplicate index loaded with {} articles ({} hashed now) in {} ms",
+                simHashIndex.size(), backfilled, System.currentTimeMillis() - started);
+    }
+
+    // articles saved before hashes were kept get theirs computed once
+    private int backfill() {
+        int hashed = 0;
+        long lastId = 0;
+        List<NewsText> batch;
+        do {
+            batch = newsRepository.findTextsWithoutSimHash(lastId, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                List<Object[]> rows = batch.parallelStream()
+                        .map(text -> new Object[]{SimHash.of(newsBodyCodec.read(text)), text.id()})
+                        .toList();
+                jdbcTemplate.batchUpdate("update news set simhash = ? where id = ? and simhash is null", rows);
+                hashed += batch.size();
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+        return hashed;
+    }
+
+    @TransactionalEventListener
+    public synchronized void onNewsChanged(NewsChangedEvent event) {
+        if (missed != null) {
+            missed.add(event);
+        }
+        apply(event);
+    }
+
+    private void apply(NewsChangedEvent event) {
+        if (event.type() == NewsChangedEvent.Type.DELETED) {
+            simHashIndex.remove(event.newsId());
+        } else {
+            simHashIndex.add(event.newsId(), SimHash.of(event.content()));
+        }
+    }
+}
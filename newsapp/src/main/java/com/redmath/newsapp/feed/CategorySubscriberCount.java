@@ -0,0 +1,4 @@
+package com.redmath.newsapp.feed;
+
+public record CategorySubscriberCount(Long categoryId, long subscribers) {
+}
@@ -0,0 +1,38 @@
+package com.redmath.newsapp.feed;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "category_subscription",
+        uniqueConstraints = @UniqueConstraint(name = "uk_subscription_user_category", columnNames = {"user_id", "category_id"}),
+        indexes = @Index(name = "idx_subscription_category_user", columnList = "category_id, user_id"))
+public class CategorySubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "category_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Category category;
+
+    private LocalDateTime createdAt;
+}
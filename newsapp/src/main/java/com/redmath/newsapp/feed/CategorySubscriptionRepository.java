@@ -0,0 +1,27 @@
+package com.redmath.newsapp.feed;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategorySubscriptionRepository extends JpaRepository<CategorySubscription, Long> {
+
+    @Query("select s.category.id from CategorySubscription s where s.user.id = :userId")
+    List<Long> findCategoryIdsByUserId(@Param("userId") long userId);
+
+    @Query("select count(s) > 0 from CategorySubscription s where s.user.id = :userId and s.category.id = :categoryId")
+    boolean existsSubscription(@Param("userId") long userId, @Param("categoryId") long categoryId);
+
+    @Modifying
+    @Query("delete from CategorySubscription s where s.user.id = :userId and s.category.id = :categoryId")
+    int deleteSubscription(@Param("userId") long userId, @Param("categoryId") long categoryId);
+
+    @Query("select new com.redmath.newsapp.feed.CategorySubscriberCount(s.category.id, count(s)) " +
+            "from CategorySubscription s group by s.category.id")
+    List<CategorySubscriberCount> countByCategory();
+}
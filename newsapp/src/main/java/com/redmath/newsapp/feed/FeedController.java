@@ -0,0 +1,51 @@
+package com.redmath.newsapp.feed;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "BearerAuth")
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping
+    public NewsPageResponse getFeed(@RequestParam(required = false) String before,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return feedService.getFeed(before, limit);
+    }
+
+    @GetMapping("/subscriptions")
+    public List<Category> getSubscriptions() {
+        return feedService.getSubscriptions();
+    }
+
+    @PostMapping("/subscriptions/{categoryId}")
+    public ResponseEntity<?> subscribe(@PathVariable Long categoryId) {
+        feedService.subscribe(categoryId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/subscriptions/{categoryId}")
+    public ResponseEntity<?> unsubscribe(@PathVariable Long categoryId) {
+        feedService.unsubscribe(categoryId);
+        return ResponseEntity.ok().build();
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public Map<String, String> handlerRuntimeException(RuntimeException ex) {
+        log.info("exception::" + ex.getMessage());
+        return Map.of("feed_error:", String.valueOf(ex.getMessage()));
+    }
+}
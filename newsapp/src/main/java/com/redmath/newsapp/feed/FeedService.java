@@ -0,0 +1,62 @@
+package com.redmath.newsapp.feed;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsService;
+import com.redmath.newsapp.user.CurrentUser;
+import com.redmath.newsapp.user.UserPrincipal;
+import com.redmath.newsapp.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private final CategorySubscriptionRepository subscriptionRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final PersonalFeeds personalFeeds;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void subscribe(Long categoryId) {
+        UserPrincipal user = CurrentUser.get();
+        Category category = categoryRepository.findById(categoryId).orElseThrow(() -> new RuntimeException("Category not found"));
+        if (subscriptionRepository.existsSubscription(user.id(), categoryId)) {
+            return;
+        }
+        subscriptionRepository.save(CategorySubscription.builder()
+                .user(userRepository.getReferenceById(user.id()))
+                .category(category)
+                .createdAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new SubscriptionChangedEvent(user.id(), categoryId, true));
+    }
+
+    @Transactional
+    public void unsubscribe(Long categoryId) {
+        UserPrincipal user = CurrentUser.get();
+        if (subscriptionRepository.deleteSubscription(user.id(), categoryId) > 0) {
+            eventPublisher.publishEvent(new SubscriptionChangedEvent(user.id(), categoryId, false));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Category> getSubscriptions() {
+        return categoryRepository.findAllById(subscriptionRepository.findCategoryIdsByUserId(CurrentUser.get().id()));
+    }
+
+    @Transactional(readOnly = true)
+    public NewsPageResponse getFeed(String before, int limit) {
+        int size = Math.max(1, Math.min(limit, NewsService.MAX_PAGE_SIZE));
+        return personalFeeds.page(CurrentUser.get().id(), NewsCursor.decode(before), size);
+    }
+}
@@ -0,0 +1,261 @@
+package com.redmath.newsapp.feed;
+
+import com.redmath.newsapp.cache.LruCache;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsTimeline;
+import com.redmath.newsapp.news.NewsTimelines;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Personal feeds over followed categories with hybrid fan-out.
+// Articles of ordinary categories are pushed on write into the timeline of every follower that has one in memory.
+// Popular categories would make that push too expensive, so their articles are merged in on read from the
+// shared per-category timelines instead. Timelines exist only for recently active readers and are rebuilt on demand.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonalFeeds {
+
+    // fannedOut are the followed categories that were ordinary when the timeline was built
+    private record UserFeed(Set<Long> categories, Set<Long> fannedOut, NewsTimeline timeline) {
+    }
+
+    private record Positioned(NewsCursor position, NewsResponse news) {
+    }
+
+    private static final Comparator<NewsCursor> NEWEST_FIRST =
+            Comparator.comparing(NewsCursor::createdAt).thenComparingLong(NewsCursor::id).reversed();
+
+    private final CategorySubscriptionRepository subscriptionRepository;
+    private final NewsRepository newsRepository;
+    private final NewsTimelines newsTimelines;
+
+    @Value("${app.feed.timeline-capacity:100}")
+    private int capacity;
+
+    @Value("${app.feed.max-timelines:100000}")
+    private int maxTimelines;
+
+    @Value("${app.feed.popular-threshold:10000}")
+    private long popularThreshold;
+
+    // least recently read timelines are evicted first
+    private LruCache<Long, UserFeed> feeds;
+    // category -> users whose in-memory timeline receives its articles
+    private final Map<Long, Set<Long>> followers = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> subscriberCounts = new ConcurrentHashMap<>();
+    // bumped before each fan-out so a timeline built concurrently can tell it may have missed an article
+    private final Map<Long, AtomicLong> writeVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        feeds = new LruCache<>(maxTimelines, this::unfollow);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSubscriberCounts() {
+        for (CategorySubscriberCount count : subscriptionRepository.countByCategory()) {
+            subscriberCounts.put(count.categoryId(), new AtomicLong(count.subscribers()));
+        }
+        log.info("personal feeds loaded subscriber counts for {} categories", subscriberCounts.size());
+    }
+
+    public boolean isPopular(Long categoryId) {
+        AtomicLong count = subscriberCounts.get(categoryId);
+        return count != null && count.get() >= popularThreshold;
+    }
+
+    public int size() {
+        return feeds.size();
+    }
+
+    public NewsPageResponse page(long userId, NewsCursor before, int limit) {
+        UserFeed feed = feeds.get(userId);
+        if (feed == null) {
+            feed = build(userId);
+        }
+        if (feed.categories().isEmpty()) {
+            return NewsPageResponse.builder().news(List.of()).build();
+        }
+
+        List<NewsPageResponse> sources = new ArrayList<>();
+        Optional<NewsPageResponse> own = feed.timeline().page(before, limit);
+        if (own.isEmpty()) {
+            return fromDatabase(feed.categories(), before, limit);
+        }
+        sources.add(own.get());
+        for (Long categoryId : feed.categories()) {
+            if (!feed.fannedOut().contains(categoryId)) {
+                Optional<NewsPageResponse> shared = newsTimelines.category(categoryId, before, limit);
+                if (shared.isEmpty()) {
+                    return fromDatabase(feed.categories(), before, limit);
+                }
+                sources.add(shared.get());
+            }
+        }
+        return merge(sources, limit);
+    }
+
+    @TransactionalEventListener
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        long categoryId = event.categoryId();
+        boolean wasPopular = isPopular(categoryId);
+        subscriberCounts.computeIfAbsent(categoryId, id -> new AtomicLong()).addAndGet(event.subscribed() ? 1 : -1);
+        if (wasPopular != isPopular(categoryId)) {
+            // the category switches between push and pull, so timelines that included it are rebuilt
+            log.info("category {} is now {}", categoryId, wasPopular ? "ordinary" : "popular");
+            feeds.removeIf((userId, feed) -> {
+                if (feed.categories().contains(categoryId)) {
+                    unfollow(userId, feed);
+                    return true;
+                }
+                return false;
+            });
+        }
+        drop(event.userId());
+    }
+
+    // imported articles were never fanned out, so timelines are rebuilt from the database on next read
+    @EventListener(NewsImportedEvent.class)
+    public void onNewsImported() {
+        feeds.keys().forEach(this::drop);
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> fanOut(event.categoryId(), event.news());
+            case UPDATED -> {
+                // an article moved to another category leaves the timelines it was pushed into from the old one
+                if (!event.previousCategoryId().equals(event.categoryId())) {
+                    removeFromFollowers(event.previousCategoryId(), event.newsId());
+                }
+                fanOut(event.categoryId(), event.news());
+            }
+            case DELETED -> removeFromFollowers(event.categoryId(), event.newsId());
+        }
+    }
+
+    private void removeFromFollowers(Long categoryId, long newsId) {
+        Set<Long> users = followers.get(categoryId);
+        if (users == null) {
+            return;
+        }
+        users.forEach(userId -> {
+            UserFeed feed = feeds.get(userId);
+            if (feed != null) {
+                feed.timeline().remove(newsId);
+            }
+        });
+    }
+
+    private void fanOut(Long categoryId, NewsResponse news) {
+        if (isPopular(categoryId)) {
+            return;
+        }
+        writeVersions.computeIfAbsent(categoryId, id -> new AtomicLong()).incrementAndGet();
+        Set<Long> users = followers.get(categoryId);
+        if (users == null) {
+            return;
+        }
+        users.forEach(userId -> {
+            UserFeed feed = feeds.get(userId);
+            if (feed != null) {
+                feed.timeline().upsert(news);
+            }
+        });
+    }
+
+    private UserFeed build(long userId) {
+        Set<Long> categories = Set.copyOf(subscriptionRepository.findCategoryIdsByUserId(userId));
+        Set<Long> fannedOut = categories.stream().filter(id -> !isPopular(id)).collect(Collectors.toUnmodifiableSet());
+        long version = writeVersion(fannedOut);
+
+        List<NewsResponse> newest = fannedOut.isEmpty() ? List.of()
+                : newsRepository.findCategoriesFeed(fannedOut, null, null, Limit.of(capacity));
+        UserFeed feed = new UserFeed(categories, fannedOut, new NewsTimeline(capacity, newest));
+
+        feeds.put(userId, feed);
+        fannedOut.forEach(categoryId -> followers.computeIfAbsent(categoryId, id -> ConcurrentHashMap.newKeySet()).add(userId));
+        if (writeVersion(fannedOut) != version) {
+            // an article was fanned out between the query and the registration; serve this one read and retry next time
+            drop(userId);
+        }
+        return feed;
+    }
+
+    private long writeVersion(Set<Long> categories) {
+        long version = 0;
+        for (Long categoryId : categories) {
+            AtomicLong writes = writeVersions.get(categoryId);
+            version += writes != null ? writes.get() : 0;
+        }
+        return version;
+    }
+
+    private void drop(long userId) {
+        UserFeed feed = feeds.remove(userId);
+        if (feed != null) {
+            unfollow(userId, feed);
+        }
+    }
+
+    private void unfollow(long userId, UserFeed feed) {
+        feed.fannedOut().forEach(categoryId -> {
+            Set<Long> users = followers.get(categoryId);
+            if (users != null) {
+                users.remove(userId);
+            }
+        });
+    }
+
+    // every source holds the newest `limit` articles after the cursor, so their union holds the page;
+    // positions are parsed once per article rather than on every comparison of the sort
+    private NewsPageResponse merge(List<NewsPageResponse> sources, int limit) {
+        List<Positioned> all = new ArrayList<>();
+        boolean hasMore = false;
+        for (NewsPageResponse source : sources) {
+            source.getNews().forEach(news -> all.add(new Positioned(NewsCursor.after(news), news)));
+            hasMore |= source.getNextCursor() != null;
+        }
+        all.sort(Comparator.comparing(Positioned::position, NEWEST_FIRST));
+        if (all.size() > limit) {
+            hasMore = true;
+        }
+        List<NewsResponse> page = all.stream().limit(limit).map(Positioned::news).toList();
+        String nextCursor = hasMore && !page.isEmpty() ? all.get(page.size() - 1).position().encode() : null;
+        return NewsPageResponse.builder().news(page).nextCursor(nextCursor).build();
+    }
+
+    private NewsPageResponse fromDatabase(Set<Long> categories, NewsCursor before, int limit) {
+        List<NewsResponse> news = newsRepository.findCategoriesFeed(categories,
+                before != null ? before.createdAt() : null, before != null ? before.id() : null, Limit.of(limit + 1));
+        if (news.size() <= limit) {
+            return NewsPageResponse.builder().news(news).build();
+        }
+        List<NewsResponse> page = news.subList(0, limit);
+        return NewsPageResponse.builder().news(page).nextCursor(NewsCursor.after(page.get(limit - 1)).encode()).build();
+    }
+}
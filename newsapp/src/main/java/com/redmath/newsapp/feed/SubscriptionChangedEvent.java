@@ -0,0 +1,5 @@
+package com.redmath.newsapp.feed;
+
+// Published when a reader follows or unfollows a category; PersonalFeeds reacts after commit.
+public record SubscriptionChangedEvent(long userId, long categoryId, boolean subscribed) {
+}
@@ -0,0 +1,274 @@
+package com.redmath.newsapp.ingest;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.duplicate.SimHash;
+import com.redmath.newsapp.news.MarkdownRenderer;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk imports RSS/Atom files of partner wire content as articles.
+// Items are streamed by FeedReader and written in chunks: the chunk is rendered and hashed across all cores, then
+// inserted with JDBC batches in one transaction together with the file's progress row in news_import. A rerun of a
+// file that stopped half way skips the items of the chunks already committed; a completed file is not read again.
+// Items are deduplicated by guid, against earlier imports as well as within the file.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeedImporter {
+
+    // counts of this run, which may have resumed a file part way
+    public record Result(long itemsRead, long imported, long duplicates, long skipped, long millis) {
+    }
+
+    // an item ready to insert, everything but its id
+    private record Row(FeedItem item, long categoryId, String excerpt, NewsBodyCodec.Encoded body,
+                       NewsBodyCodec.Encoded html, long simhash) {
+    }
+
+    private static final class Progress {
+        private long itemsRead;
+        private long imported;
+        private long duplicates;
+        private long skipped;
+        private boolean completed;
+    }
+
+    // must match the allocationSize of news_seq on News
+    private static final int ID_BLOCK = 50;
+    private static final int MAX_TITLE = 255;
+    private static final int MAX_GUID = 512;
+    private static final long LOG_INTERVAL_MS = 10_000;
+
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final NewsBodyCodec newsBodyCodec;
+    private final MarkdownRenderer markdownRenderer;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.import.files:}")
+    private List<String> files;
+
+    @Value("${app.import.editor-email:}")
+    private String editorEmail;
+
+    // for items whose category matches none of ours
+    @Value("${app.import.default-category:}")
+    private String defaultCategory;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    // java -jar newsapp.jar --app.import.files=wire/reuters.xml,wire/ap.xml --app.import.editor-email=wire@example.com
+    @EventListener(ApplicationReadyEvent.class)
+    public void importConfiguredFiles() {
+        for (String file : files) {
+            if (file.isBlank()) {
+                continue;
+            }
+            try {
+                importFile(Path.of(file.strip()));
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                log.error("import of {} stopped, rerun to resume it: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    public Result importFile(Path file) throws IOException, XMLStreamException {
+        String source = file.toAbsolutePath().normalize().toString();
+        long editorId = userRepository.findByEmail(editorEmail)
+                .orElseThrow(() -> new RuntimeException("Import editor not found: " + editorEmail)).getId();
+        Map<String, Long> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(category.getName().toLowerCase(), category.getId());
+        }
+        Long fallback = null;
+        if (!defaultCategory.isBlank()) {
+            fallback = categories.get(defaultCategory.toLowerCase());
+            if (fallback == null) {
+                throw new RuntimeException("Default import category not found: " + defaultCategory);
+            }
+        }
+
+        Progress progress = loadProgress(source);
+        if (progress.completed) {
+            log.info("{} was imported already ({} articles)", source, progress.imported);
+            return new Result(0, 0, 0, 0, 0);
+        }
+        Progress before = new Progress();
+        before.itemsRead = progress.itemsRead;
+        before.imported = progress.imported;
+        before.duplicates = progress.duplicates;
+        before.skipped = progress.skipped;
+        long resumedAt = progress.itemsRead;
+        long started = System.currentTimeMillis();
+        long lastLog = started;
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             FeedReader reader = new FeedReader(in)) {
+            if (resumedAt > 0) {
+                if (reader.skip(resumedAt) < resumedAt) {
+                    throw new RuntimeException(source + " has fewer items than were already imported from it");
+                }
+                log.info("resuming {} after item {}", source, resumedAt);
+            }
+            List<FeedItem> chunk = new ArrayList<>(chunkSize);
+            FeedItem item;
+            while ((item = reader.next()) != null) {
+                chunk.add(item);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(source, chunk, categories, fallback, editorId, progress, false);
+                    chunk.clear();
+                    if (System.currentTimeMillis() - lastLog >= LOG_INTERVAL_MS) {
+                        lastLog = System.currentTimeMillis();
+                        log.info("{}: {} items read, {} imported, {} items/s", source, progress.itemsRead, progress.imported,
+                                perSecond(progress.itemsRead - resumedAt, lastLog - started));
+                    }
+                }
+            }
+            writeChunk(source, chunk, categories, fallback, editorId, progress, true);
+        }
+
+        long millis = System.currentTimeMillis() - started;
+        Result result = new Result(progress.itemsRead - before.itemsRead, progress.imported - before.imported,
+                progress.duplicates - before.duplicates, progress.skipped - before.skipped, millis);
+        log.info("imported {} articles from {} items of {} ({} duplicates, {} skipped) in {} ms, {} items/s",
+                result.imported(), result.itemsRead(), source, result.duplicates(), result.skipped(), millis,
+                perSecond(result.itemsRead(), millis));
+        if (result.imported() > 0) {
+            eventPublisher.publishEvent(new NewsImportedEvent(source, result.imported()));
+        }
+        return result;
+    }
+
+    private void writeChunk(String source, List<FeedItem> items, Map<String, Long> categories, Long fallback,
+                            long editorId, Progress progress, boolean last) {
+        // rendering and hashing are the expensive part and need no transaction
+        List<Row> prepared = items.parallelStream().map(item -> prepare(item, categories, fallback)).toList();
+        List<Row> rows = new ArrayList<>(prepared.size());
+        Set<String> guids = new HashSet<>();
+        for (Row row : prepared) {
+            if (row != null && guids.add(row.item().guid())) {
+                rows.add(row);
+            }
+        }
+        long skipped = prepared.stream().filter(row -> row == null).count();
+
+        int[] inserted = new int[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Set<String> existing = existingGuids(guids);
+            List<Row> fresh = rows.stream().filter(row -> !existing.contains(row.item().guid())).toList();
+            long[] ids = reserveIds(fresh.size());
+            List<Object[]> news = new ArrayList<>(fresh.size());
+            List<Object[]> bodies = new ArrayList<>(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                Row row = fresh.get(i);
+                LocalDateTime published = row.item().publishedAt() != null ? row.item().publishedAt() : LocalDateTime.now();
+                news.add(new Object[]{ids[i], row.item().title(), row.excerpt(), published, published, row.categoryId(),
+                        editorId, row.simhash(), row.item().guid()});
+                bodies.add(new Object[]{ids[i], row.body().data(), row.body().compressed(), row.html().data(),
+                        row.html().compressed(), MarkdownRenderer.VERSION});
+            }
+            jdbcTemplate.batchUpdate("insert into news (id, title, excerpt, created_at, updated_at, view_count, category_id, " +
+                    "posted_by_id, simhash, guid) values (?, ?, ?, ?, ?, 0, ?, ?, ?, ?)", news);
+            jdbcTemplate.batchUpdate("insert into news_body (news_id, data, compressed, html, html_compressed, render_version) " +
+                    "values (?, ?, ?, ?, ?, ?)", bodies);
+            jdbcTemplate.update("merge into news_import (source, items_read, imported, duplicates, skipped, completed, updated_at) " +
+                            "key (source) values (?, ?, ?, ?, ?, ?, ?)",
+                    source, progress.itemsRead + items.size(), progress.imported + fresh.size(),
+                    progress.duplicates + items.size() - skipped - fresh.size(), progress.skipped + skipped, last, LocalDateTime.now());
+            inserted[0] = fresh.size();
+        });
+
+        // only counted once committed
+        progress.itemsRead += items.size();
+        progress.imported += inserted[0];
+        progress.duplicates += items.size() - skipped - inserted[0];
+        progress.skipped += skipped;
+        progress.completed = last;
+    }
+
+    // null for items that cannot be imported: no guid to deduplicate by, no title or no category
+    private Row prepare(FeedItem item, Map<String, Long> categories, Long fallback) {
+        if (item.guid() == null || item.guid().length() > MAX_GUID || item.title() == null) {
+            return null;
+        }
+        Long categoryId = item.category() != null ? categories.get(item.category().toLowerCase()) : null;
+        if (categoryId == null) {
+            categoryId = fallback;
+        }
+        if (categoryId == null) {
+            return null;
+        }
+        String title = item.title().length() > MAX_TITLE ? item.title().substring(0, MAX_TITLE) : item.title();
+        MarkdownRenderer.Rendered rendered = markdownRenderer.render(item.content());
+        return new Row(new FeedItem(item.guid(), title, item.content(), item.category(), item.publishedAt()), categoryId,
+                newsBodyCodec.excerpt(rendered.text()), newsBodyCodec.encode(item.content()),
+                newsBodyCodec.encode(rendered.html()), SimHash.of(item.content()));
+    }
+
+    private Set<String> existingGuids(Set<String> guids) {
+        if (guids.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(guids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList("select guid from news where guid in (" + placeholders + ")",
+                String.class, guids.toArray()));
+    }
+
+    // each sequence value is the first of ID_BLOCK ids nobody else gets, as with Hibernate's pooled-lo
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        for (int from = 0; from < count; from += ID_BLOCK) {
+            long first = jdbcTemplate.queryForObject("select next value for news_seq", Long.class);
+            for (int i = from; i < Math.min(count, from + ID_BLOCK); i++) {
+                ids[i] = first + i - from;
+            }
+        }
+        return ids;
+    }
+
+    private Progress loadProgress(String source) {
+        Progress progress = new Progress();
+        jdbcTemplate.query("select items_read, imported, duplicates, skipped, completed from news_import where source = ?", rs -> {
+            progress.itemsRead = rs.getLong(1);
+            progress.imported = rs.getLong(2);
+            progress.duplicates = rs.getLong(3);
+            progress.skipped = rs.getLong(4);
+            progress.completed = rs.getBoolean(5);
+        }, source);
+        return progress;
+    }
+
+    private static long perSecond(long items, long millis) {
+        return millis > 0 ? items * 1000 / millis : items;
+    }
+}
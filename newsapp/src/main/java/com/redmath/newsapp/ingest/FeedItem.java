@@ -0,0 +1,7 @@
+package com.redmath.newsapp.ingest;
+
+import java.time.LocalDateTime;
+
+// One RSS item or Atom entry; content is already plain text, publishedAt null when the feed had no usable date.
+public record FeedItem(String guid, String title, String content, String category, LocalDateTime publishedAt) {
+}
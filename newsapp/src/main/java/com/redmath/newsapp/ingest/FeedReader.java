@@ -0,0 +1,170 @@
+package com.redmath.newsapp.ingest;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+
+// Pulls RSS 2.0 items and Atom entries off a stream one at a time with StAX, so memory does not grow with the file.
+// Only the item being read is held; channel and feed level elements are skipped over.
+public class FeedReader implements AutoCloseable {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        // feed files come from partners: no DTDs, no external entities
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private final XMLStreamReader xml;
+
+    public FeedReader(InputStream in) throws XMLStreamException {
+        xml = FACTORY.createXMLStreamReader(in);
+    }
+
+    // the next item, or null at the end of the feed
+    public FeedItem next() throws XMLStreamException {
+        while (xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT
+                    && (xml.getLocalName().equals("item") || xml.getLocalName().equals("entry"))) {
+                return readItem();
+            }
+        }
+        return null;
+    }
+
+    // moves past count items without building them, for resuming
+    public long skip(long count) throws XMLStreamException {
+        long skipped = 0;
+        while (skipped < count && xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT
+                    && (xml.getLocalName().equals("item") || xml.getLocalName().equals("entry"))) {
+                skipElement();
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        xml.close();
+    }
+
+    private FeedItem readItem() throws XMLStreamException {
+        String guid = null;
+        String link = null;
+        String title = null;
+        String description = null;
+        String content = null;
+        String category = null;
+        String date = null;
+
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (xml.getLocalName()) {
+                // RSS guid and Atom id
+                case "guid", "id" -> guid = text();
+                case "link" -> {
+                    String href = xml.getAttributeValue(null, "href");
+                    String rel = xml.getAttributeValue(null, "rel");
+                    String text = text();
+                    if (link == null || rel == null || rel.equals("alternate")) {
+                        link = href != null ? href : text;
+                    }
+                }
+                case "title" -> title = HtmlText.toPlain(text());
+                // RSS description and Atom summary are the short form, content:encoded and Atom content the full one
+                case "description", "summary" -> description = text();
+                case "encoded", "content" -> content = text();
+                case "category" -> {
+                    String term = xml.getAttributeValue(null, "term");
+                    String text = text();
+                    if (category == null) {
+                        category = term != null ? term : text;
+                    }
+                }
+                // RSS pubDate, Dublin Core date, Atom published; Atom updated only if nothing else is there
+                case "pubDate", "date", "published" -> date = text();
+                case "updated" -> {
+                    String text = text();
+                    if (date == null) {
+                        date = text;
+                    }
+                }
+                default -> skipElement();
+            }
+        }
+        String body = HtmlText.toMarkdown(content != null ? content : description);
+        return new FeedItem(blankToNull(guid != null ? guid : link), blankToNull(title), body, blankToNull(category), parseDate(date));
+    }
+
+    // text of the current element including that of nested markup, as Atom xhtml content has
+    private String text() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    text.append('<').append(xml.getLocalName()).append('>');
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (depth > 0) {
+                        text.append("</").append(xml.getLocalName()).append('>');
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        text.append(xml.getText());
+                default -> {
+                }
+            }
+        }
+        return text.toString().strip();
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    static LocalDateTime parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            // RSS dates are RFC 822, everything else ISO 8601
+            if (!Character.isDigit(date.charAt(0)) || !date.contains("T")) {
+                return atLocalZone(ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME));
+            }
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(date, ZonedDateTime::from, LocalDateTime::from);
+            return parsed instanceof ZonedDateTime zoned ? atLocalZone(zoned) : (LocalDateTime) parsed;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime atLocalZone(ZonedDateTime date) {
+        return date.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static String blankToNull(String text) {
+        return text == null || text.isBlank() ? null : text;
+    }
+}
@@ -0,0 +1,101 @@
+package com.redmath.newsapp.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Turns the HTML of feed titles and descriptions into plain text, or into the Markdown our articles are stored as:
+// tags are dropped, block elements become paragraph breaks, entities are decoded and Markdown syntax characters escaped.
+final class HtmlText {
+
+    private static final Map<String, String> ENTITIES = Map.ofEntries(
+            Map.entry("amp", "&"), Map.entry("lt", "<"), Map.entry("gt", ">"), Map.entry("quot", "\""),
+            Map.entry("apos", "'"), Map.entry("nbsp", " "), Map.entry("mdash", "—"), Map.entry("ndash", "–"),
+            Map.entry("hellip", "…"), Map.entry("lsquo", "‘"), Map.entry("rsquo", "’"), Map.entry("ldquo", "“"),
+            Map.entry("rdquo", "”"), Map.entry("copy", "©"));
+
+    private HtmlText() {
+    }
+
+    static String toPlain(String html) {
+        return String.join(" ", paragraphs(html));
+    }
+
+    static String toMarkdown(String html) {
+        StringBuilder markdown = new StringBuilder();
+        for (String paragraph : paragraphs(html)) {
+            if (!markdown.isEmpty()) {
+                markdown.append("\n\n");
+            }
+            String line = paragraph.replaceAll("([\\\\*_`\\[\\]])", "\\\\$1");
+            // would start a heading, quote or list
+            if ("#>-+".indexOf(line.charAt(0)) >= 0) {
+                line = "\\" + line;
+            }
+            markdown.append(line);
+        }
+        return markdown.toString();
+    }
+
+    private static List<String> paragraphs(String html) {
+        if (html == null) {
+            return List.of();
+        }
+        StringBuilder text = new StringBuilder(html.length());
+        int i = 0;
+        while (i < html.length()) {
+            char ch = html.charAt(i);
+            if (ch == '<') {
+                int end = html.indexOf('>', i);
+                if (end < 0) {
+                    break;
+                }
+                if (isBlock(html, i + 1, end)) {
+                    text.append("\n\n");
+                }
+                i = end + 1;
+            } else if (ch == '&') {
+                int end = html.indexOf(';', i);
+                String decoded = end > i && end - i <= 10 ? decode(html.substring(i + 1, end)) : null;
+                text.append(decoded != null ? decoded : "&");
+                i = decoded != null ? end + 1 : i + 1;
+            } else {
+                text.append(ch);
+                i++;
+            }
+        }
+        List<String> paragraphs = new ArrayList<>();
+        for (String paragraph : text.toString().split("\\n\\s*\\n")) {
+            String line = paragraph.strip().replaceAll("\\s+", " ");
+            if (!line.isEmpty()) {
+                paragraphs.add(line);
+            }
+        }
+        return paragraphs;
+    }
+
+    private static boolean isBlock(String html, int from, int to) {
+        int start = html.charAt(from) == '/' ? from + 1 : from;
+        int end = start;
+        while (end < to && Character.isLetterOrDigit(html.charAt(end))) {
+            end++;
+        }
+        return switch (html.substring(start, end).toLowerCase()) {
+            case "p", "br", "div", "li", "ul", "ol", "h1", "h2", "h3", "h4", "h5", "h6", "blockquote", "tr", "table" -> true;
+            default -> false;
+        };
+    }
+
+    private static String decode(String entity) {
+        if (entity.startsWith("#")) {
+            try {
+                int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                        ? Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1));
+                return Character.isValidCodePoint(codePoint) ? Character.toString(codePoint) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ENTITIES.get(entity);
+    }
+}
@@ -0,0 +1,80 @@
+package com.redmath.newsapp.news;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Setter;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+// Moves article text out of the old news.content column into news_body, in batches.
+// The changeset drops the column right after, so this runs once per database.
+@Setter
+public class LegacyNewsContentChange implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int compressThreshold = 1024;
+    private int excerptLength = 200;
+
+    private int moved;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        NewsBodyCodec codec = new NewsBodyCodec(compressThreshold, excerptLength);
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                     "select id, content from news where id not in (select news_id from news_body)");
+             PreparedStatement insertBody = connection.prepareStatement(
+                     "insert into news_body (news_id, data, compressed) values (?, ?, ?)");
+             PreparedStatement updateExcerpt = connection.prepareStatement(
+                     "update news set excerpt = ? where id = ?")) {
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    long id = rows.getLong(1);
+                    String content = rows.getString(2);
+                    NewsBody body = new NewsBody();
+                    codec.write(body, content);
+                    insertBody.setLong(1, id);
+                    insertBody.setBytes(2, body.getData());
+                    insertBody.setBoolean(3, body.isCompressed());
+                    insertBody.addBatch();
+                    updateExcerpt.setString(1, codec.excerpt(content));
+                    updateExcerpt.setLong(2, id);
+                    updateExcerpt.addBatch();
+                    if (++moved % BATCH_SIZE == 0) {
+                        insertBody.executeBatch();
+                        updateExcerpt.executeBatch();
+                    }
+                }
+            }
+            insertBody.executeBatch();
+            updateExcerpt.executeBatch();
+        } catch (Exception e) {
+            throw new CustomChangeException("Could not move legacy article bodies", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "moved " + moved + " legacy article bodies to news_body";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,49 @@
+package com.redmath.newsapp.news;
+
+import org.commonmark.node.Link;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.springframework.stereotype.Component;
+
+// Turns the Markdown editors write into HTML that is safe to embed as is: raw HTML in the source is
+// escaped rather than passed through, and link and image URLs with unsafe schemes (javascript: and the
+// like) are dropped. Parser and renderers are immutable and shared between threads.
+@Component
+public class MarkdownRenderer {
+
+    // bump whenever the output changes for the same input; stored HTML of older versions is rendered again
+    public static final int VERSION = 1;
+
+    private final Parser parser = Parser.builder().build();
+
+    private final HtmlRenderer htmlRenderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                if (node instanceof Link) {
+                    attributes.put("rel", "nofollow noopener");
+                }
+            })
+            .build();
+
+    private final TextContentRenderer textRenderer = TextContentRenderer.builder().build();
+
+    // text is the content without Markdown syntax, for excerpts
+    public record Rendered(String html, String text) {
+    }
+
+    public Rendered render(String markdown) {
+        Node document = parse(markdown);
+        return new Rendered(htmlRenderer.render(document), textRenderer.render(document));
+    }
+
+    public String html(String markdown) {
+        return htmlRenderer.render(parse(markdown));
+    }
+
+    private Node parse(String markdown) {
+        return parser.parse(markdown != null ? markdown : "");
+    }
+}
@@ -5,6 +5,7 @@ import com.redmath.newsapp.category.Category;
 import com.redmath.newsapp.user.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -14,16 +15,39 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// the schema comes from db/changelog; these mirror the feed indexes declared there
+@Table(indexes = {
+        @Index(name = "idx_news_feed", columnList = "created_at desc, id desc"),
+        @Index(name = "idx_news_category_feed", columnList = "category_id, created_at desc, id desc"),
+        @Index(name = "idx_news_editor_feed", columnList = "posted_by_id, created_at desc, id desc")
+}, uniqueConstraints = @UniqueConstraint(name = "uq_news_guid", columnNames = "guid"))
 public class News {
+    // handed out in blocks of 50 (pooled-lo), FeedImporter draws its ids from the same sequence
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = 50)
     private long id;
 
     private String title;
-    private String content;
+
+    @Column(length = 300)
+    private String excerpt;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long viewCount;
+
+    // SimHash of the content, and the earlier article it nearly repeats when the duplicate policy flagged it
+    private Long simhash;
+    private Long duplicateOf;
+
+    // id of the feed item an imported article came from
+    @Column(length = 512)
+    private String guid;
+
     @ManyToOne
     @JoinColumn(name="category_id")
     private Category category;
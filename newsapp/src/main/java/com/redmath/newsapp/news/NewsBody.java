@@ -0,0 +1,42 @@
+package com.redmath.newsapp.news;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+// Article text lives in its own table so feeds never read it; large bodies are stored deflated.
+// The Markdown source is kept next to the HTML rendered from it, so reads never render.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "news_body")
+public class NewsBody {
+    @Id
+    private Long newsId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "news_id")
+    private News news;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    private boolean compressed;
+
+    @Lob
+    private byte[] html;
+
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean htmlCompressed;
+
+    // MarkdownRenderer.VERSION the html was rendered with, 0 if never
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int renderVersion;
+}
@@ -0,0 +1,127 @@
+package com.redmath.newsapp.news;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+@Component
+public class NewsBodyCodec {
+
+    @Value("${app.news.compress-threshold:1024}")
+    private int compressThreshold;
+
+    @Value("${app.news.excerpt-length:200}")
+    private int excerptLength;
+
+    public NewsBodyCodec() {
+    }
+
+    // for callers outside the Spring context, such as schema migrations
+    public NewsBodyCodec(int compressThreshold, int excerptLength) {
+        this.compressThreshold = compressThreshold;
+        this.excerptLength = excerptLength;
+    }
+
+    // stored form of a text: the UTF-8 bytes, deflated when that makes them smaller
+    public record Encoded(byte[] data, boolean compressed) {
+    }
+
+    public void write(NewsBody body, String content) {
+        Encoded encoded = encode(content);
+        body.setData(encoded.data());
+        body.setCompressed(encoded.compressed());
+    }
+
+    public void writeHtml(NewsBody body, String html, int renderVersion) {
+        Encoded encoded = encode(html);
+        body.setHtml(encoded.data());
+        body.setHtmlCompressed(encoded.compressed());
+        body.setRenderVersion(renderVersion);
+    }
+
+    public Encoded encode(String text) {
+        byte[] raw = text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (raw.length < compressThreshold) {
+            return new Encoded(raw, false);
+        }
+        byte[] deflated = deflate(raw);
+        // already compressed media or very short text can grow, keep whichever is smaller
+        return deflated.length < raw.length ? new Encoded(deflated, true) : new Encoded(raw, false);
+    }
+
+    public String read(NewsBody body) {
+        return read(body.getData(), body.isCompressed());
+    }
+
+    public String read(NewsText text) {
+        return read(text.data(), text.compressed());
+    }
+
+    // null until the body has been rendered
+    public String readHtml(NewsBody body) {
+        return body.getHtml() != null ? read(body.getHtml(), body.isHtmlCompressed()) : null;
+    }
+
+    public String read(byte[] data, boolean compressed) {
+        byte[] raw = compressed ? inflate(data) : data;
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    // first excerptLength characters, cut back to the last whole word
+    public String excerpt(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = content.strip();
+        if (text.length() <= excerptLength) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', excerptLength);
+        if (end < excerptLength / 2) {
+            end = excerptLength;
+        }
+        return text.substring(0, end).stripTrailing() + "…";
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated news body");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt news body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.redmath.newsapp.news;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NewsBodyRepository extends JpaRepository<NewsBody, Long> {
+}
@@ -0,0 +1,31 @@
+package com.redmath.newsapp.news;
+
+import com.redmath.newsapp.dto.NewsResponse;
+
+// Published by NewsService on every write; in-memory read models listen for it after commit.
+// news carries the list view (with excerpt), content the full article text.
+// previousCategoryId is where an updated article was before the edit, otherwise categoryId.
+public record NewsChangedEvent(Type type, long newsId, Long categoryId, Long previousCategoryId, NewsResponse news, String content) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static NewsChangedEvent created(long categoryId, NewsResponse news, String content) {
+        return new NewsChangedEvent(Type.CREATED, news.getId(), categoryId, categoryId, news, content);
+    }
+
+    public static NewsChangedEvent updated(long categoryId, NewsResponse news, String content) {
+        return updated(categoryId, categoryId, news, content);
+    }
+
+    public static NewsChangedEvent updated(long previousCategoryId, long categoryId, NewsResponse news, String content) {
+        return new NewsChangedEvent(Type.UPDATED, news.getId(), categoryId, previousCategoryId, news, content);
+    }
+
+    public static NewsChangedEvent deleted(long newsId, long categoryId) {
+        return new NewsChangedEvent(Type.DELETED, newsId, categoryId, categoryId, null, null);
+    }
+}
@@ -1,14 +1,24 @@
 package com.redmath.newsapp.news;
 
+import com.redmath.newsapp.dto.NewsDetailResponse;
+import com.redmath.newsapp.dto.NewsPageResponse;
 import com.redmath.newsapp.dto.NewsRequest;
 import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.dto.NewsSearchResponse;
+import com.redmath.newsapp.duplicate.DuplicateNewsException;
+import com.redmath.newsapp.stream.NewsStreamHub;
+import com.redmath.newsapp.stream.StreamCapacityException;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -19,12 +29,13 @@ import java.util.Map;
 public class NewsController {
 
     private final NewsService newsService;
+    private final NewsStreamHub newsStreamHub;
 
     @SecurityRequirement(name = "BearerAuth")
     @PreAuthorize("hasRole('EDITOR')")
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public NewsResponse create(@RequestBody NewsRequest request) {
+    public NewsDetailResponse create(@RequestBody NewsRequest request) {
         return newsService.create(request);
     }
 
@@ -38,7 +49,7 @@ public class NewsController {
     @SecurityRequirement(name = "BearerAuth")
     @PreAuthorize("hasRole('EDITOR')")
     @PutMapping("/{id}")
-    public NewsResponse update(@PathVariable Long id, @RequestBody NewsRequest request) {
+    public NewsDetailResponse update(@PathVariable Long id, @RequestBody NewsRequest request) {
         return newsService.updateNews(id, request);
     }
 
@@ -50,23 +61,63 @@ public class NewsController {
     }
 
     @GetMapping
-    public List<NewsResponse> allNews() {
-        return newsService.getAllNews();
+    public NewsPageResponse allNews(@RequestParam(required = false) String before,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return newsService.getAllNews(before, limit);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long categoryId) {
+        return newsStreamHub.subscribe(categoryId);
+    }
+
+    @GetMapping("/trending")
+    public List<NewsResponse> trending(@RequestParam(defaultValue = "10") int limit) {
+        return newsService.getTrending(limit);
+    }
+
+    @GetMapping("/{id}")
+    public NewsDetailResponse detail(@PathVariable Long id) {
+        return newsService.getNews(id);
     }
 
     @GetMapping("/category/{id}")
-    public List<NewsResponse> byCategory(@PathVariable Long id) {
-        return newsService.getNewsByCategory(id);
+    public NewsPageResponse byCategory(@PathVariable Long id,
+                                       @RequestParam(required = false) String before,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        return newsService.getNewsByCategory(id, before, limit);
     }
 
     @GetMapping("/editor/{id}")
-    public List<NewsResponse> byEditor(@PathVariable Long id) {
-        return newsService.getNewsByEditor(id);
+    public NewsPageResponse byEditor(@PathVariable Long id,
+                                     @RequestParam(required = false) String before,
+                                     @RequestParam(defaultValue = "20") int limit) {
+        return newsService.getNewsByEditor(id, before, limit);
     }
 
     @GetMapping("/search")
-    public List<NewsResponse> search(@RequestParam String keyword) {
-        return newsService.searchNews(keyword);
+    public NewsSearchResponse search(@RequestParam String keyword,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return newsService.searchNews(keyword, page, size);
+    }
+
+    @ExceptionHandler(StreamCapacityException.class)
+    public ResponseEntity<Void> handleStreamCapacity(StreamCapacityException ex) {
+        log.info("exception::" + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    // a stream whose client stopped reading: the write timed out and the response is already committed
+    @ExceptionHandler(IOException.class)
+    public void handleStreamWriteFailure(IOException ex) {
+        log.info("stream closed::" + ex);
+    }
+
+    @ExceptionHandler(DuplicateNewsException.class)
+    public ResponseEntity<Map<String, String>> handleDuplicate(DuplicateNewsException ex) {
+        log.info("exception::" + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("news_error:", ex.getMessage()));
     }
 
     @ExceptionHandler(RuntimeException.class)
@@ -0,0 +1,33 @@
+package com.redmath.newsapp.news;
+
+import com.redmath.newsapp.dto.NewsResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Position in a feed ordered by (createdAt desc, id desc); clients only see the encoded form.
+public record NewsCursor(LocalDateTime createdAt, long id) {
+
+    public static NewsCursor after(NewsResponse news) {
+        return new NewsCursor(LocalDateTime.parse(news.getCreatedAt()), news.getId());
+    }
+
+    public static NewsCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new NewsCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.redmath.newsapp.news;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Stores fresh HTML for every article rendered with an older MarkdownRenderer.VERSION (or never rendered).
+// Until it gets to an article, reads of that article render on the fly.
+// It runs on its own thread after startup, so the application takes traffic while it works through the batches.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsHtmlRenderJob {
+
+    private final NewsRepository newsRepository;
+    private final NewsBodyCodec newsBodyCodec;
+    private final MarkdownRenderer markdownRenderer;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.news.render-batch-size:1000}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("news-html-render").factory());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(() -> {
+            try {
+                renderStale();
+            } catch (RuntimeException e) {
+                log.warn("HTML render job stopped, remaining articles render on read: {}", e.getMessage());
+            }
+        });
+    }
+
+    // interrupts the job between batches; what is not rendered yet is picked up on the next start
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // loads stale bodies in id order batch by batch, renders each batch across all cores and writes it back in one JDBC batch
+    public void renderStale() {
+        long started = System.currentTimeMillis();
+        int version = MarkdownRenderer.VERSION;
+        int rendered = 0;
+
+        long lastId = 0;
+        List<NewsText> batch;
+        do {
+            batch = newsRepository.findTextsToRender(lastId, version, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                List<Object[]> rows = batch.parallelStream()
+                        .map(text -> {
+                            NewsBodyCodec.Encoded html = newsBodyCodec.encode(markdownRenderer.html(newsBodyCodec.read(text)));
+                            return new Object[]{html.data(), html.compressed(), version, text.id(), version};
+                        })
+                        .toList();
+                // an editor saving meanwhile has already stored HTML of this version, which must win
+                jdbcTemplate.batchUpdate("update news_body set html = ?, html_compressed = ?, render_version = ? " +
+                        "where news_id = ? and render_version < ?", rows);
+                rendered += batch.size();
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+
+        if (rendered > 0) {
+            log.info("rendered {} articles to HTML version {} in {} ms", rendered, version, System.currentTimeMillis() - started);
+        }
+    }
+}
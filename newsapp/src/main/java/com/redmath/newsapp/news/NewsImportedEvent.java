@@ -0,0 +1,5 @@
+package com.redmath.newsapp.news;
+
+// Published once FeedImporter has bulk-inserted articles past NewsService; read models reload from the database.
+public record NewsImportedEvent(String source, long imported) {
+}
@@ -0,0 +1,49 @@
+package com.redmath.newsapp.news;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.cache.LruCache;
+import com.redmath.newsapp.dto.NewsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+// UTF-8 JSON of each article, serialized once per version (id + updatedAt) and reused by every feed response.
+// Holds the most recently served articles, which are the ones on the first feed pages.
+@Component
+public class NewsJsonCache {
+
+    private record Fragment(String updatedAt, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final LruCache<Long, Fragment> fragments;
+
+    public NewsJsonCache(ObjectMapper objectMapper, @Value("${app.json-cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.fragments = new LruCache<>(maxEntries);
+    }
+
+    public byte[] json(NewsResponse news) throws JsonProcessingException {
+        Fragment fragment = fragments.get(news.getId());
+        if (fragment != null && Objects.equals(fragment.updatedAt(), news.getUpdatedAt())) {
+            return fragment.json();
+        }
+        byte[] json = objectMapper.writeValueAsBytes(news);
+        fragments.put(news.getId(), new Fragment(news.getUpdatedAt(), json));
+        return json;
+    }
+
+    public int size() {
+        return fragments.size();
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.type() != NewsChangedEvent.Type.CREATED) {
+            fragments.remove(event.newsId());
+        }
+    }
+}
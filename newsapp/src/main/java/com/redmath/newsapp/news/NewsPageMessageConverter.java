@@ -0,0 +1,73 @@
+package com.redmath.newsapp.news;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.profiling.SerializationEvent;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Writes feed pages by copying cached article fragments to the response instead of running Jackson over every article.
+public class NewsPageMessageConverter extends AbstractHttpMessageConverter<NewsPageResponse> {
+
+    private static final byte[] NEWS_START = "{\"news\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+
+    private final NewsJsonCache newsJsonCache;
+    private final ObjectMapper objectMapper;
+
+    public NewsPageMessageConverter(NewsJsonCache newsJsonCache, ObjectMapper objectMapper) {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON);
+        this.newsJsonCache = newsJsonCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return NewsPageResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected NewsPageResponse readInternal(Class<? extends NewsPageResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NewsPageResponse is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(NewsPageResponse page, HttpOutputMessage outputMessage) throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        OutputStream out = outputMessage.getBody();
+        out.write(NEWS_START);
+        long bytes = NEWS_START.length;
+        List<NewsResponse> news = page.getNews();
+        for (int i = 0; i < news.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+                bytes++;
+            }
+            byte[] json = newsJsonCache.json(news.get(i));
+            out.write(json);
+            bytes += json.length;
+        }
+        byte[] cursor = objectMapper.writeValueAsBytes(page.getNextCursor());
+        out.write(NEXT_CURSOR);
+        out.write(cursor);
+        out.write('}');
+        event.type = "NewsPageResponse";
+        event.bytes = bytes + NEXT_CURSOR.length + cursor.length + 1;
+        event.commit();
+    }
+}
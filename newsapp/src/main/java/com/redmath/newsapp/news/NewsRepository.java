@@ -1,21 +1,114 @@
 package com.redmath.newsapp.news;
 
-import com.redmath.newsapp.category.Category;
-import com.redmath.newsapp.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import com.redmath.newsapp.dto.NewsResponse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News,Long> {
-    List<News> findByPostedBy(User editor);
 
-    List<News> findByCategory(Category category, Sort sort);
-    List<News> findByPostedBy(User user, Sort sort);
-    List<News> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(String title, String content);
+    // builds NewsResponse rows straight from one joined select, no entities or lazy relations involved
+    String NEWS_RESPONSE = "select new com.redmath.newsapp.dto.NewsResponse(n.id, n.title, n.excerpt, c.name, u.name, n.createdAt, n.updatedAt) " +
+            "from News n join n.category c join n.postedBy u ";
+
+    // Feed pages pick their ids in a subquery on news alone, in the order of the feed's index and with a leading
+    // createdAt <= bound, so H2 reads just the page from the index; joined with category and users in one query
+    // it starts from those small tables instead and sorts every matching article.
+    String FEED_PAGE = "where n.id in (select m.id from News m ";
+
+    // keyset condition for (createdAt desc, id desc) feeds; a first page has no cursor and its own query,
+    // since an "is null or" branch keeps H2 from seeking to the cursor
+    String BEFORE_CURSOR = "m.createdAt <= :beforeTime and (m.createdAt < :beforeTime or m.id < :beforeId) ";
+
+    String PAGE_ORDER = "m.createdAt desc, m.id desc limit :size) ";
+
+    String FEED_ORDER = "order by n.createdAt desc, n.id desc";
+
+    default List<NewsResponse> findFeed(LocalDateTime beforeTime, Long beforeId, Limit limit) {
+        return beforeTime == null ? findFeedHead(limit.max())
+                : findFeedBefore(beforeTime, beforeId, limit.max());
+    }
+
+    default List<NewsResponse> findCategoryFeed(Long categoryId, LocalDateTime beforeTime, Long beforeId, Limit limit) {
+        return beforeTime == null ? findCategoryFeedHead(categoryId, limit.max())
+                : findCategoryFeedBefore(categoryId, beforeTime, beforeId, limit.max());
+    }
+
+    // several categories have no single index order, so this one still sorts their articles before the cursor
+    default List<NewsResponse> findCategoriesFeed(Collection<Long> categoryIds, LocalDateTime beforeTime, Long beforeId, Limit limit) {
+        return beforeTime == null ? findCategoriesFeedHead(categoryIds, limit.max())
+                : findCategoriesFeedBefore(categoryIds, beforeTime, beforeId, limit.max());
+    }
+
+    default List<NewsResponse> findEditorFeed(long editorId, LocalDateTime beforeTime, Long beforeId, Limit limit) {
+        return beforeTime == null ? findEditorFeedHead(editorId, limit.max())
+                : findEditorFeedBefore(editorId, beforeTime, beforeId, limit.max());
+    }
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "order by " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findFeedHead(@Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where " + BEFORE_CURSOR + "order by " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findFeedBefore(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                                      @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.category.id = :categoryId order by m.category.id, " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findCategoryFeedHead(@Param("categoryId") Long categoryId, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.category.id = :categoryId and " + BEFORE_CURSOR +
+            "order by m.category.id, " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findCategoryFeedBefore(@Param("categoryId") Long categoryId, @Param("beforeTime") LocalDateTime beforeTime,
+                                              @Param("beforeId") Long beforeId, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.category.id in :categoryIds order by " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findCategoriesFeedHead(@Param("categoryIds") Collection<Long> categoryIds, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.category.id in :categoryIds and " + BEFORE_CURSOR + "order by " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findCategoriesFeedBefore(@Param("categoryIds") Collection<Long> categoryIds, @Param("beforeTime") LocalDateTime beforeTime,
+                                                @Param("beforeId") Long beforeId, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.postedBy.id = :editorId order by m.postedBy.id, " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findEditorFeedHead(@Param("editorId") long editorId, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + FEED_PAGE + "where m.postedBy.id = :editorId and " + BEFORE_CURSOR +
+            "order by m.postedBy.id, " + PAGE_ORDER + FEED_ORDER)
+    List<NewsResponse> findEditorFeedBefore(@Param("editorId") long editorId, @Param("beforeTime") LocalDateTime beforeTime,
+                                            @Param("beforeId") Long beforeId, @Param("size") int size);
+
+    @Query(NEWS_RESPONSE + "where u.id = :editorId " + FEED_ORDER)
+    List<NewsResponse> findResponsesByEditorId(@Param("editorId") long editorId);
+
+    @Query(NEWS_RESPONSE + "where n.id in :ids")
+    List<NewsResponse> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(NEWS_RESPONSE + "where n.id = :id")
+    Optional<NewsResponse> findResponseById(@Param("id") long id);
+
+    // the row stays locked until the transaction ends, so edits of one article run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select n from News n where n.id = :id")
+    Optional<News> findForUpdate(@Param("id") long id);
+
+    @Query("select new com.redmath.newsapp.news.NewsText(n.id, n.title, b.data, b.compressed) " +
+            "from NewsBody b join b.news n where n.id > :afterId order by n.id")
+    List<NewsText> findTexts(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select new com.redmath.newsapp.news.NewsText(n.id, n.title, b.data, b.compressed) " +
+            "from NewsBody b join b.news n where n.id > :afterId and n.simhash is null order by n.id")
+    List<NewsText> findTextsWithoutSimHash(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select new com.redmath.newsapp.news.NewsText(n.id, n.title, b.data, b.compressed) " +
+            "from NewsBody b join b.news n where n.id > :afterId and b.renderVersion < :version order by n.id")
+    List<NewsText> findTextsToRender(@Param("afterId") long afterId, @Param("version") int version, Limit limit);
 
 }
@@ -1,113 +1,283 @@
 package com.redmath.newsapp.news;
 
-import com.redmath.newsapp.category.Category;
 import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsDetailResponse;
+import com.redmath.newsapp.dto.NewsPageResponse;
 import com.redmath.newsapp.dto.NewsRequest;
 import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.dto.NewsSearchResponse;
+import com.redmath.newsapp.dto.RevisionDetailResponse;
+import com.redmath.newsapp.duplicate.DuplicateDetector;
+import com.redmath.newsapp.duplicate.SimHash;
+import com.redmath.newsapp.profiling.DtoMappingEvent;
+import com.redmath.newsapp.revision.RevisionService;
+import com.redmath.newsapp.search.SearchHits;
+import com.redmath.newsapp.search.SearchIndex;
+import com.redmath.newsapp.search.TextAnalyzer;
 import com.redmath.newsapp.user.CurrentUser;
 import com.redmath.newsapp.user.Role;
-import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserPrincipal;
 import com.redmath.newsapp.user.UserRepository;
+import com.redmath.newsapp.views.TrendingNews;
+import com.redmath.newsapp.views.ViewCounter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 public class NewsService {
+    public static final int MAX_PAGE_SIZE = 100;
+
     @PersistenceContext
     private EntityManager entityManager;
 
     private final NewsRepository newsRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final NewsBodyRepository newsBodyRepository;
+    private final NewsBodyCodec newsBodyCodec;
+    private final MarkdownRenderer markdownRenderer;
+    private final OffHeapBodyCache bodyCache;
+    private final ViewCounter viewCounter;
+    private final TrendingNews trendingNews;
+    private final SearchIndex searchIndex;
+    private final NewsTimelines newsTimelines;
+    private final RevisionService revisionService;
+    private final DuplicateDetector duplicateDetector;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public NewsResponse create(NewsRequest request) {
-        User editor = CurrentUser.get();
+    public NewsDetailResponse create(NewsRequest request) {
+        UserPrincipal editor = CurrentUser.get();
 
         assert editor != null;
-        if (editor.getRole() != Role.EDITOR) throw new RuntimeException("Only EDITORS can post news.");
+        if (editor.role() != Role.EDITOR) throw new RuntimeException("Only EDITORS can post news.");
 
         var category = categoryRepository.findById(request.getCategoryId()).orElseThrow(() -> new RuntimeException("Category not found"));
+        List<String> terms = TextAnalyzer.analyze(request.getContent());
+        long simhash = SimHash.of(terms);
+        Long duplicateOf = duplicateDetector.check(simhash, terms.size());
 
-        News news = News.builder().title(request.getTitle()).content(request.getContent()).category(category).postedBy(editor).createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        MarkdownRenderer.Rendered rendered = markdownRenderer.render(request.getContent());
+        News news = News.builder().title(request.getTitle()).excerpt(newsBodyCodec.excerpt(rendered.text())).category(category).postedBy(userRepository.getReferenceById(editor.id())).createdAt(now()).updatedAt(now())
+                .simhash(simhash).duplicateOf(duplicateOf).build();
 
         newsRepository.save(news);
-        return toDto(news);
+        NewsBody body = NewsBody.builder().news(news).build();
+        newsBodyCodec.write(body, request.getContent());
+        newsBodyCodec.writeHtml(body, rendered.html(), MarkdownRenderer.VERSION);
+        entityManager.persist(body);
+        revisionService.recordCreated(news, request.getContent());
+
+        NewsResponse response = toDto(news, editor.name());
+        eventPublisher.publishEvent(NewsChangedEvent.created(category.getId(), response, request.getContent()));
+        NewsDetailResponse detail = toDetail(response, request.getContent(), rendered.html());
+        detail.setDuplicateOf(duplicateOf);
+        return detail;
     }
 
+    @Transactional(readOnly = true)
     public List<NewsResponse> getMyNews() {
-        User editor = CurrentUser.get();
-        return newsRepository.findByPostedBy(editor).stream().map(this::toDto).toList();
+        UserPrincipal editor = CurrentUser.get();
+        return newsRepository.findResponsesByEditorId(editor.id());
     }
 
     @Transactional
     public void deleteNews(Long id) {
         News news = newsRepository.findById(id).orElseThrow(() -> new RuntimeException("News not found"));
-        if (news.getPostedBy().getId() != CurrentUser.get().getId())
+        if (news.getPostedBy().getId() != CurrentUser.get().id())
             throw new RuntimeException("Not your news article");
 
+        newsBodyRepository.deleteById(news.getId());
         newsRepository.delete(news);
+        eventPublisher.publishEvent(NewsChangedEvent.deleted(news.getId(), news.getCategory().getId()));
     }
 
     @Transactional
-    public NewsResponse updateNews(Long id, NewsRequest request) {
-        News news = newsRepository.findById(id).orElseThrow(() -> new RuntimeException("News not found"));
+    public NewsDetailResponse updateNews(Long id, NewsRequest request) {
+        // locked, so the previous content and the next revision number are not read by two edits at once
+        News news = newsRepository.findForUpdate(id).orElseThrow(() -> new RuntimeException("News not found"));
 
-        if (news.getPostedBy().getId() != CurrentUser.get().getId())
+        if (news.getPostedBy().getId() != CurrentUser.get().id())
             throw new RuntimeException("Not your news article");
 
+        String previousTitle = news.getTitle();
+        LocalDateTime previousUpdatedAt = news.getUpdatedAt();
+        MarkdownRenderer.Rendered rendered = markdownRenderer.render(request.getContent());
         news.setTitle(request.getTitle());
-        news.setContent(request.getContent());
-        news.setUpdatedAt(LocalDateTime.now());
+        news.setExcerpt(newsBodyCodec.excerpt(rendered.text()));
+        news.setSimhash(SimHash.of(request.getContent()));
+        news.setUpdatedAt(now());
+
+        Optional<NewsBody> existing = newsBodyRepository.findById(id);
+        String previousContent = existing.map(newsBodyCodec::read).orElse(null);
+        NewsBody body = existing.orElseGet(() -> {
+            NewsBody created = NewsBody.builder().news(news).build();
+            entityManager.persist(created);
+            return created;
+        });
+        newsBodyCodec.write(body, request.getContent());
+        newsBodyCodec.writeHtml(body, rendered.html(), MarkdownRenderer.VERSION);
+        revisionService.recordUpdated(news, previousTitle, previousContent, request.getContent(), previousUpdatedAt);
 
+        long previousCategoryId = news.getCategory().getId();
         if (request.getCategoryId() != null) {
             var category = categoryRepository.findById(request.getCategoryId()).orElseThrow(() -> new RuntimeException("Category not found"));
             news.setCategory(category);
         }
 
-        return toDto(news);
+        NewsResponse response = toDto(news);
+        eventPublisher.publishEvent(NewsChangedEvent.updated(previousCategoryId, news.getCategory().getId(), response, request.getContent()));
+        return toDetail(response, request.getContent(), rendered.html());
+    }
+
+    // saves the old text as a new revision, so the history keeps everything in between
+    @Transactional
+    public NewsDetailResponse restoreRevision(Long id, int revision) {
+        RevisionDetailResponse old = revisionService.get(id, revision);
+        return updateNews(id, NewsRequest.builder().title(old.getTitle()).content(old.getContent()).build());
+    }
+
+    @Transactional(readOnly = true)
+    public NewsDetailResponse getNews(Long id) {
+        NewsResponse news = newsRepository.findResponseById(id).orElseThrow(() -> new RuntimeException("News not found"));
+        viewCounter.record(id);
+        OffHeapBodyCache.CachedBody body = bodyCache.getBody(id, news.getUpdatedAt());
+        if (body == null) {
+            Optional<NewsBody> stored = newsBodyRepository.findById(id);
+            if (stored.isEmpty()) {
+                return toDetail(news, null, null);
+            }
+            body = readBody(stored.get());
+            bodyCache.put(id, news.getUpdatedAt(), body.content(), body.html());
+        }
+        return toDetail(news, body.content(), body.html());
+    }
+
+    // bodies NewsHtmlRenderJob has not reached yet are rendered here, without writing them back
+    private OffHeapBodyCache.CachedBody readBody(NewsBody body) {
+        String content = newsBodyCodec.read(body);
+        String html = body.getRenderVersion() == MarkdownRenderer.VERSION ? newsBodyCodec.readHtml(body) : markdownRenderer.html(content);
+        return new OffHeapBodyCache.CachedBody(content, html);
     }
 
     private NewsResponse toDto(News news) {
-        return NewsResponse.builder().id(news.getId()).title(news.getTitle()).content(news.getContent()).categoryName(news.getCategory().getName()).editorName(news.getPostedBy().getName()).createdAt(news.getCreatedAt().toString()).updatedAt(news.getUpdatedAt().toString()).build();
+        return toDto(news, news.getPostedBy().getName());
+    }
+
+    private NewsResponse toDto(News news, String editorName) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        // getCategory() may load the category, which is part of what this measures
+        NewsResponse response = NewsResponse.builder().id(news.getId()).title(news.getTitle()).excerpt(news.getExcerpt()).categoryName(news.getCategory().getName()).editorName(editorName).createdAt(news.getCreatedAt().toString()).updatedAt(news.getUpdatedAt().toString()).build();
+        event.type = "NewsResponse";
+        event.commit();
+        return response;
+    }
+
+    private NewsDetailResponse toDetail(NewsResponse news, String content, String html) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        NewsDetailResponse detail = NewsDetailResponse.builder().id(news.getId()).title(news.getTitle()).content(content).html(html).categoryName(news.getCategoryName()).editorName(news.getEditorName()).createdAt(news.getCreatedAt()).updatedAt(news.getUpdatedAt()).build();
+        event.type = "NewsDetailResponse";
+        event.commit();
+        return detail;
     }
 
-    public List<NewsResponse> getAllNews() {
-        return newsRepository.findAll(Sort.by("createdAt").descending())
-                .stream().map(this::toDto).toList();
+    public List<NewsResponse> getTrending(int limit) {
+        return trendingNews.top(pageSize(limit));
     }
 
-    public List<NewsResponse> getNewsByCategory(Long categoryId) {
-        var category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+    @Transactional(readOnly = true)
+    public NewsPageResponse getAllNews(String before, int limit) {
+        NewsCursor cursor = NewsCursor.decode(before);
+        int size = pageSize(limit);
+        return newsTimelines.global(cursor, size)
+                .orElseGet(() -> toPage(newsRepository.findFeed(beforeTime(cursor), beforeId(cursor), Limit.of(size + 1)), size));
+    }
+
+    @Transactional(readOnly = true)
+    public NewsPageResponse getNewsByCategory(Long categoryId, String before, int limit) {
+        NewsCursor cursor = NewsCursor.decode(before);
+        int size = pageSize(limit);
+        Optional<NewsPageResponse> cached = newsTimelines.category(categoryId, cursor, size);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        List<NewsResponse> news = newsRepository.findCategoryFeed(categoryId, beforeTime(cursor), beforeId(cursor), Limit.of(size + 1));
+        if (news.isEmpty() && !categoryRepository.existsById(categoryId)) {
+            throw new RuntimeException("Category not found");
+        }
+        return toPage(news, size);
+    }
+
+    @Transactional(readOnly = true)
+    public NewsPageResponse getNewsByEditor(Long editorId, String before, int limit) {
+        NewsCursor cursor = NewsCursor.decode(before);
+        int size = pageSize(limit);
+        List<NewsResponse> news = newsRepository.findEditorFeed(editorId, beforeTime(cursor), beforeId(cursor), Limit.of(size + 1));
+        if (news.isEmpty() && !userRepository.existsById(editorId)) {
+            throw new RuntimeException("Editor not found");
+        }
+        return toPage(news, size);
+    }
 
-        return newsRepository.findByCategory(category, Sort.by("createdAt").descending())
-                .stream().map(this::toDto).toList();
+    // the database keeps microseconds, so in-memory copies and cursors must not carry more
+    private LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
-    public List<NewsResponse> getNewsByEditor(Long editorId) {
-        var editor = userRepository.findById(editorId)
-                .orElseThrow(() -> new RuntimeException("Editor not found"));
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private LocalDateTime beforeTime(NewsCursor cursor) {
+        return cursor != null ? cursor.createdAt() : null;
+    }
+
+    private Long beforeId(NewsCursor cursor) {
+        return cursor != null ? cursor.id() : null;
+    }
 
-        return newsRepository.findByPostedBy(editor, Sort.by("createdAt").descending())
-                .stream().map(this::toDto).toList();
+    // the repository is asked for one extra row so we know whether a next page exists
+    private NewsPageResponse toPage(List<NewsResponse> news, int size) {
+        if (news.size() <= size) {
+            return NewsPageResponse.builder().news(news).build();
+        }
+        List<NewsResponse> page = news.subList(0, size);
+        return NewsPageResponse.builder().news(page).nextCursor(NewsCursor.after(page.get(size - 1)).encode()).build();
     }
 
-    public List<NewsResponse> searchNews(String keyword) {
-        return newsRepository
-                .findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(keyword, keyword)
-                .stream().map(this::toDto).toList();
+    @Transactional(readOnly = true)
+    public NewsSearchResponse searchNews(String keyword, int page, int size) {
+        int pageSize = pageSize(size);
+        int pageNumber = Math.max(page, 0);
+        // a page that far out is past the last hit anyway, so clamping only avoids the int overflow
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE);
+        SearchHits hits = searchIndex.search(keyword, offset, pageSize);
+        if (hits.ids().isEmpty()) {
+            return NewsSearchResponse.builder().news(List.of()).total(hits.total()).page(pageNumber).size(pageSize).build();
+        }
+
+        // the index decides the order, the database only fills in the page of articles
+        Map<Long, NewsResponse> byId = newsRepository.findResponsesByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(NewsResponse::getId, Function.identity()));
+        List<NewsResponse> news = hits.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return NewsSearchResponse.builder().news(news).total(hits.total()).page(pageNumber).size(pageSize).build();
     }
 }
@@ -0,0 +1,5 @@
+package com.redmath.newsapp.news;
+
+// Title and stored body of an article, as read by background jobs that need the full text.
+public record NewsText(long id, String title, byte[] data, boolean compressed) {
+}
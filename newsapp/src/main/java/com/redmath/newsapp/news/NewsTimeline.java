@@ -0,0 +1,115 @@
+package com.redmath.newsapp.news;
+
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The newest articles of one feed, newest first, bounded to a fixed capacity.
+// Readers take an immutable snapshot without locking; writers publish a new snapshot with a CAS.
+public class NewsTimeline {
+
+    private record Entry(NewsCursor position, NewsResponse news) {
+    }
+
+    // complete means the snapshot holds every article of the feed, so nothing older exists
+    private record Snapshot(Entry[] entries, boolean complete) {
+    }
+
+    private static final Comparator<NewsCursor> NEWEST_FIRST =
+            Comparator.comparing(NewsCursor::createdAt).thenComparingLong(NewsCursor::id).reversed();
+
+    private final int capacity;
+    private final AtomicReference<Snapshot> snapshot;
+
+    public NewsTimeline(int capacity, List<NewsResponse> newest) {
+        this.capacity = capacity;
+        List<Entry> entries = newest.stream().limit(capacity).map(news -> new Entry(NewsCursor.after(news), news)).toList();
+        this.snapshot = new AtomicReference<>(new Snapshot(entries.toArray(Entry[]::new), newest.size() < capacity));
+    }
+
+    public void upsert(NewsResponse news) {
+        Entry added = new Entry(NewsCursor.after(news), news);
+        snapshot.updateAndGet(current -> {
+            List<Entry> entries = new ArrayList<>(current.entries().length + 1);
+            for (Entry entry : current.entries()) {
+                if (entry.news().getId() != news.getId()) {
+                    entries.add(entry);
+                }
+            }
+            int at = 0;
+            while (at < entries.size() && NEWEST_FIRST.compare(entries.get(at).position(), added.position()) < 0) {
+                at++;
+            }
+            boolean complete = current.complete();
+            if (at == entries.size() && !complete) {
+                // older than everything we hold in a feed that continues in the database
+                return current;
+            }
+            entries.add(at, added);
+            if (entries.size() > capacity) {
+                entries.remove(entries.size() - 1);
+                complete = false;
+            }
+            return new Snapshot(entries.toArray(Entry[]::new), complete);
+        });
+    }
+
+    public boolean contains(long id) {
+        for (Entry entry : snapshot.get().entries()) {
+            if (entry.news().getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void remove(long id) {
+        // most timelines never held the article, so skip the copy for them
+        if (!contains(id)) {
+            return;
+        }
+        snapshot.updateAndGet(current -> {
+            Entry[] entries = Arrays.stream(current.entries()).filter(entry -> entry.news().getId() != id).toArray(Entry[]::new);
+            return entries.length == current.entries().length ? current : new Snapshot(entries, current.complete());
+        });
+    }
+
+    public int size() {
+        return snapshot.get().entries().length;
+    }
+
+    // empty when the requested page reaches past what is held in memory
+    public Optional<NewsPageResponse> page(NewsCursor before, int limit) {
+        Snapshot current = snapshot.get();
+        Entry[] entries = current.entries();
+
+        int start = 0;
+        if (before != null) {
+            while (start < entries.length && NEWEST_FIRST.compare(entries[start].position(), before) <= 0) {
+                start++;
+            }
+        }
+
+        int end = start + limit;
+        if (end > entries.length) {
+            if (!current.complete()) {
+                return Optional.empty();
+            }
+            end = entries.length;
+        }
+
+        List<NewsResponse> news = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            news.add(entries[i].news());
+        }
+        boolean hasMore = end < entries.length || !current.complete();
+        String nextCursor = hasMore && !news.isEmpty() ? entries[end - 1].position().encode() : null;
+        return Optional.of(NewsPageResponse.builder().news(news).nextCursor(nextCursor).build());
+    }
+}
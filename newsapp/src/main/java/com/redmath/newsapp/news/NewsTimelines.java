@@ -0,0 +1,121 @@
+package com.redmath.newsapp.news;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves the first pages of the global and per-category feeds from memory.
+// Until warmed up, or for pages past the buffered articles, callers fall back to the database.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsTimelines {
+
+    private final NewsRepository newsRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${app.timeline.capacity:200}")
+    private int capacity;
+
+    private volatile NewsTimeline global;
+    private final Map<Long, NewsTimeline> byCategory = new ConcurrentHashMap<>();
+
+    private final ReentrantLock warming = new ReentrantLock();
+    // non-null while a warm-up runs; guarded by this
+    private List<NewsChangedEvent> missed;
+
+    @EventListener({ApplicationReadyEvent.class, NewsImportedEvent.class})
+    public void warmUp() {
+        warming.lock();
+        try {
+            load();
+        } finally {
+            warming.unlock();
+        }
+    }
+
+    // changes committed while the feeds are read may or may not be in the result, so they are replayed
+    // onto the fresh timelines before those are published; upsert and remove are idempotent
+    private void load() {
+        synchronized (this) {
+            missed = new ArrayList<>();
+        }
+        Map<Long, NewsTimeline> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(category.getId(), new NewsTimeline(capacity,
+                    newsRepository.findCategoryFeed(category.getId(), null, null, Limit.of(capacity))));
+        }
+        NewsTimeline fresh = new NewsTimeline(capacity, newsRepository.findFeed(null, null, Limit.of(capacity)));
+
+        synchronized (this) {
+            byCategory.putAll(categories);
+            global = fresh;
+            missed.forEach(this::apply);
+            missed = null;
+        }
+        log.info("news timelines warmed up for {} categories", byCategory.size());
+    }
+
+    public Optional<NewsPageResponse> global(NewsCursor before, int limit) {
+        NewsTimeline timeline = global;
+        return timeline != null ? timeline.page(before, limit) : Optional.empty();
+    }
+
+    public Optional<NewsPageResponse> category(Long categoryId, NewsCursor before, int limit) {
+        NewsTimeline timeline = byCategory.get(categoryId);
+        return timeline != null ? timeline.page(before, limit) : Optional.empty();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onNewsChanged(NewsChangedEvent event) {
+        if (missed != null) {
+            missed.add(event);
+        }
+        // timelines of an earlier warm-up keep serving until replaced, so they stay current too
+        if (global != null) {
+            apply(event);
+        }
+    }
+
+    private void apply(NewsChangedEvent event) {
+        NewsTimeline timeline = global;
+        switch (event.type()) {
+            case CREATED -> {
+                timeline.upsert(event.news());
+                // a category created after warm-up starts out empty, so its first article makes it complete
+                byCategory.computeIfAbsent(event.categoryId(), id -> new NewsTimeline(capacity, List.of()))
+                        .upsert(event.news());
+            }
+            case UPDATED -> {
+                timeline.upsert(event.news());
+                byCategory.forEach((id, categoryTimeline) -> {
+                    if (!id.equals(event.categoryId())) {
+                        categoryTimeline.remove(event.newsId());
+                    }
+                });
+                byCategory.computeIfAbsent(event.categoryId(), id -> new NewsTimeline(capacity, List.of()))
+                        .upsert(event.news());
+            }
+            case DELETED -> {
+                timeline.remove(event.newsId());
+                byCategory.values().forEach(categoryTimeline -> categoryTimeline.remove(event.newsId()));
+            }
+        }
+    }
+}
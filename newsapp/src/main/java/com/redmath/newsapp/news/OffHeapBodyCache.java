@@ -0,0 +1,261 @@
+package com.redmath.newsapp.news;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Hot article bodies kept outside the Java heap. One shared off-heap segment is split into fixed-size
+// slabs; a body takes as many slabs as it needs, and the least recently read bodies give theirs back
+// when space runs out. Only the small slab index lives on the heap.
+// An entry holds the article source followed by its rendered HTML.
+// Reads share a read lock, so copies out of different slabs run in parallel; only put and remove take the write lock.
+// A read marks its entry instead of reordering the index, and eviction gives marked entries a second chance (CLOCK),
+// which approximates least recently read without a write on the read path.
+@Component
+public class OffHeapBodyCache {
+
+    public record CachedBody(String content, String html) {
+    }
+
+    private static final class Entry {
+
+        private final String updatedAt;
+        private final int[] slabs;
+        private final int contentLength;
+        private final int length;
+        // set by reads, cleared when eviction passes over the entry
+        private volatile boolean referenced;
+
+        Entry(String updatedAt, int[] slabs, int contentLength, int length) {
+            this.updatedAt = updatedAt;
+            this.slabs = slabs;
+            this.contentLength = contentLength;
+            this.length = length;
+        }
+    }
+
+    private final int slabSize;
+    private final int slabCount;
+    private final Arena arena;
+    private final MemorySegment memory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock; the index is in insertion order, so lookups do not modify it
+    private final int[] freeSlabs;
+    private int freeCount;
+    private final LinkedHashMap<Long, Entry> index = new LinkedHashMap<>();
+    private boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public OffHeapBodyCache(@Value("${app.body-cache.capacity-bytes:67108864}") long capacityBytes,
+                            @Value("${app.body-cache.slab-size:4096}") int slabSize,
+                            MeterRegistry meterRegistry) {
+        this.slabSize = slabSize;
+        this.slabCount = (int) (capacityBytes / slabSize);
+        this.arena = Arena.ofShared();
+        this.memory = arena.allocate((long) slabCount * slabSize, 64);
+        this.freeSlabs = new int[slabCount];
+        for (int i = 0; i < slabCount; i++) {
+            freeSlabs[i] = slabCount - 1 - i;
+        }
+        this.freeCount = slabCount;
+
+        Gauge.builder("news.body_cache.off_heap.used", this, OffHeapBodyCache::usedBytes).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("news.body_cache.off_heap.capacity", this, cache -> (double) cache.capacityBytes()).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("news.body_cache.entries", this, OffHeapBodyCache::size).register(meterRegistry);
+        Gauge.builder("news.body_cache.hit_ratio", this, OffHeapBodyCache::hitRatio).register(meterRegistry);
+        FunctionCounter.builder("news.body_cache.hits", this, OffHeapBodyCache::hits).register(meterRegistry);
+        FunctionCounter.builder("news.body_cache.misses", this, OffHeapBodyCache::misses).register(meterRegistry);
+        FunctionCounter.builder("news.body_cache.evictions", this, OffHeapBodyCache::evictions).register(meterRegistry);
+    }
+
+    // only returns the body stored for this version of the article
+    public String get(long newsId, String updatedAt) {
+        CachedBody body = getBody(newsId, updatedAt);
+        return body != null ? body.content() : null;
+    }
+
+    public CachedBody getBody(long newsId, String updatedAt) {
+        byte[] bytes;
+        int contentLength;
+        lock.readLock().lock();
+        try {
+            Entry entry = closed ? null : index.get(newsId);
+            if (entry == null || !entry.updatedAt.equals(updatedAt)) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            entry.referenced = true;
+            bytes = new byte[entry.length];
+            contentLength = entry.contentLength;
+            int copied = 0;
+            for (int slab : entry.slabs) {
+                int chunk = Math.min(slabSize, entry.length - copied);
+                MemorySegment.copy(memory, ValueLayout.JAVA_BYTE, (long) slab * slabSize, bytes, copied, chunk);
+                copied += chunk;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CachedBody(new String(bytes, 0, contentLength, StandardCharsets.UTF_8),
+                new String(bytes, contentLength, bytes.length - contentLength, StandardCharsets.UTF_8));
+    }
+
+    public void put(long newsId, String updatedAt, String content) {
+        put(newsId, updatedAt, content, "");
+    }
+
+    public void put(long newsId, String updatedAt, String content, String html) {
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        byte[] htmlBytes = html.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[contentBytes.length + htmlBytes.length];
+        System.arraycopy(contentBytes, 0, bytes, 0, contentBytes.length);
+        System.arraycopy(htmlBytes, 0, bytes, contentBytes.length, htmlBytes.length);
+        int needed = Math.max(1, (bytes.length + slabSize - 1) / slabSize);
+
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            removeEntry(newsId);
+            // a single body may not take more than an eighth of the cache
+            if (needed > slabCount / 8) {
+                return;
+            }
+            evict(needed);
+
+            int[] slabs = new int[needed];
+            int copied = 0;
+            for (int i = 0; i < needed; i++) {
+                slabs[i] = freeSlabs[--freeCount];
+                int chunk = Math.min(slabSize, bytes.length - copied);
+                MemorySegment.copy(bytes, copied, memory, ValueLayout.JAVA_BYTE, (long) slabs[i] * slabSize, chunk);
+                copied += chunk;
+            }
+            index.put(newsId, new Entry(updatedAt, slabs, contentBytes.length, bytes.length));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long newsId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(newsId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.type() != NewsChangedEvent.Type.CREATED) {
+            remove(event.newsId());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double usedBytes() {
+        lock.readLock().lock();
+        try {
+            return (double) (slabCount - freeCount) * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long capacityBytes() {
+        return (long) slabCount * slabSize;
+    }
+
+    public double hits() {
+        return hits.sum();
+    }
+
+    public double misses() {
+        return misses.sum();
+    }
+
+    public double evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRatio() {
+        long hit = hits.sum();
+        long lookups = hit + misses.sum();
+        return lookups == 0 ? 0 : (double) hit / lookups;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            index.clear();
+            freeCount = 0;
+            arena.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // oldest first; an entry read since it was last passed over is moved to the back instead
+    private void evict(int needed) {
+        while (freeCount < needed && !index.isEmpty()) {
+            Iterator<Map.Entry<Long, Entry>> oldest = index.entrySet().iterator();
+            Map.Entry<Long, Entry> eldest = oldest.next();
+            oldest.remove();
+            Entry entry = eldest.getValue();
+            if (entry.referenced) {
+                entry.referenced = false;
+                index.put(eldest.getKey(), entry);
+            } else {
+                release(entry);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void removeEntry(long newsId) {
+        Entry entry = index.remove(newsId);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    private void release(Entry entry) {
+        for (int slab : entry.slabs) {
+            freeSlabs[freeCount++] = slab;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.redmath.newsapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Mapping normally takes well under a microsecond, so only the outliers are kept
+@Name("com.redmath.newsapp.DtoMapping")
+@Label("DTO Mapping")
+@Description("Turning a News entity into its response DTO")
+@Category({"News App", "Web"})
+@Threshold("10 us")
+@StackTrace(false)
+public class DtoMappingEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    public String type;
+}
@@ -0,0 +1,68 @@
+package com.redmath.newsapp.profiling;
+
+import com.redmath.newsapp.dto.RecordingResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/jfr")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "BearerAuth")
+public class FlightRecordingController {
+
+    private final FlightRecordings flightRecordings;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public RecordingResponse status() {
+        return flightRecordings.status();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/start")
+    public RecordingResponse start(@RequestParam(defaultValue = "profile") String settings,
+                                   @RequestBody(required = false) Map<String, String> overrides) {
+        return flightRecordings.start(settings, overrides != null ? overrides : Map.of());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/dump")
+    public RecordingResponse dump() {
+        return flightRecordings.dump();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/stop")
+    public RecordingResponse stop() {
+        return flightRecordings.stop();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/files/{name}")
+    public ResponseEntity<Resource> file(@PathVariable String name) {
+        Path file = flightRecordings.file(name);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Map<String, String>> handlerRuntimeException(RuntimeException ex) {
+        log.info("exception::" + ex.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("news_error:", ex.getMessage()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.redmath.newsapp.profiling;
+
+import com.redmath.newsapp.dto.RecordingResponse;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Runs at most one JDK Flight Recorder recording at a time, so hot spots in production can be recorded
+// over HTTP. The recording uses one of the JDK's settings (default or profile) and keeps our own events
+// at the thresholds declared on them unless overridden; dumps and the final recording are written as
+// .jfr files to app.jfr.directory, to be opened in JDK Mission Control or with the jfr tool.
+@Service
+@Slf4j
+public class FlightRecordings {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern FILE_NAME = Pattern.compile("newsapp-\\d{8}-\\d{6}(-dump-\\d+)?\\.jfr");
+
+    @Value("${app.jfr.directory:${java.io.tmpdir}}")
+    private Path directory;
+
+    // the recording keeps this much history, older data is dropped from its ring buffer
+    @Value("${app.jfr.max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    @Value("${app.jfr.max-size-bytes:268435456}")
+    private long maxSizeBytes;
+
+    private Recording recording;
+    private String settings;
+    private int dumps;
+
+    public synchronized RecordingResponse start(String settings, Map<String, String> overrides) {
+        if (recording != null) {
+            throw new RuntimeException("A recording is already running");
+        }
+        Map<String, String> config;
+        try {
+            config = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Unknown recording settings: " + settings);
+        }
+        // e.g. {"com.redmath.newsapp.RepositoryCall#threshold": "0 ms"}
+        config.putAll(overrides);
+        Recording started = new Recording(config);
+        started.setName("newsapp-" + LocalDateTime.now().format(FILE_TIME));
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofMillis(maxAgeMs));
+        started.setMaxSize(maxSizeBytes);
+        started.start();
+        recording = started;
+        this.settings = settings;
+        dumps = 0;
+        log.info("flight recording {} started with {} settings", started.getName(), settings);
+        return toResponse(null);
+    }
+
+    // what the running recording holds so far, it keeps running
+    public synchronized RecordingResponse dump() {
+        Recording running = running();
+        Path file = directory.resolve(running.getName() + "-dump-" + (++dumps) + ".jfr");
+        write(running, file);
+        return toResponse(file);
+    }
+
+    public synchronized RecordingResponse stop() {
+        Recording running = running();
+        Path file = directory.resolve(running.getName() + ".jfr");
+        running.stop();
+        write(running, file);
+        RecordingResponse response = toResponse(file);
+        running.close();
+        recording = null;
+        log.info("flight recording {} stopped, written to {}", running.getName(), file);
+        return response;
+    }
+
+    public synchronized RecordingResponse status() {
+        return recording != null ? toResponse(null) : RecordingResponse.builder().state("STOPPED").build();
+    }
+
+    // only files written here can be fetched
+    public Path file(String name) {
+        Path file = directory.resolve(name);
+        if (!FILE_NAME.matcher(name).matches() || !Files.isRegularFile(file)) {
+            throw new RuntimeException("Recording file not found");
+        }
+        return file;
+    }
+
+    private Recording running() {
+        if (recording == null) {
+            throw new RuntimeException("No recording is running");
+        }
+        return recording;
+    }
+
+    private void write(Recording running, Path file) {
+        try {
+            Files.createDirectories(directory);
+            running.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write " + file, e);
+        }
+    }
+
+    private RecordingResponse toResponse(Path file) {
+        RecordingResponse.RecordingResponseBuilder response = RecordingResponse.builder()
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(settings)
+                .startedAt(recording.getStartTime() != null
+                        ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault()).toString() : null);
+        if (file != null) {
+            try {
+                response.file(file.getFileName().toString()).fileSize(Files.size(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return response.build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.redmath.newsapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// One per authenticated request, so every one is kept but without a stack trace
+@Name("com.redmath.newsapp.JwtParse")
+@Label("JWT Parse and Verify")
+@Description("Parsing a bearer token and verifying its signature, or finding it in the verified claims cache")
+@Category({"News App", "Security"})
+@Threshold("0 ms")
+@StackTrace(false)
+public class JwtParseEvent extends jdk.jfr.Event {
+
+    @Label("Cached")
+    @Description("Claims came from the verified claims cache, the signature was not checked again")
+    public boolean cached;
+
+    @Label("Valid")
+    public boolean valid;
+}
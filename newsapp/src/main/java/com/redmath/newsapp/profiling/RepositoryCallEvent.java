@@ -0,0 +1,28 @@
+package com.redmath.newsapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// The stack trace names the service method behind a query; in-memory lookups below the threshold are left out
+@Name("com.redmath.newsapp.RepositoryCall")
+@Label("Repository Call")
+@Description("A call to a Spring Data repository, including the database round trip")
+@Category({"News App", "Persistence"})
+@Threshold("100 us")
+@StackTrace(true)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Size of a returned list, 1 or 0 for a single result, -1 when unknown")
+    public int rows;
+}
@@ -0,0 +1,25 @@
+package com.redmath.newsapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.redmath.newsapp.Serialization")
+@Label("Response Serialization")
+@Description("Writing a response body as JSON")
+@Category({"News App", "Web"})
+@Threshold("0 ms")
+@StackTrace(false)
+public class SerializationEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    public String type;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,20 @@
+package com.redmath.newsapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.redmath.newsapp.UserLookup")
+@Label("User Lookup")
+@Description("Loading the principal of a token's subject in the authentication filter")
+@Category({"News App", "Security"})
+@Threshold("0 ms")
+@StackTrace(false)
+public class UserLookupEvent extends jdk.jfr.Event {
+
+    @Label("Found")
+    public boolean found;
+}
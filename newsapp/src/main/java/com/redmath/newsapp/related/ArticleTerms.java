@@ -0,0 +1,17 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.search.TextAnalyzer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Term counts of one article, title terms counted titleBoost times.
+public record ArticleTerms(long id, Map<String, Float> counts) {
+
+    public static ArticleTerms of(long id, String title, String content, float titleBoost) {
+        Map<String, Float> counts = new HashMap<>();
+        TextAnalyzer.analyze(title).forEach(term -> counts.merge(term, titleBoost, Float::sum));
+        TextAnalyzer.analyze(content).forEach(term -> counts.merge(term, 1f, Float::sum));
+        return new ArticleTerms(id, counts);
+    }
+}
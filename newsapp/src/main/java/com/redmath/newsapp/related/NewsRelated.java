@@ -0,0 +1,44 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.news.News;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+// One entry of an article's related stories list, written by RelatedArticles with plain JDBC.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "news_related")
+@IdClass(NewsRelated.Key.class)
+public class NewsRelated {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long newsId;
+        private int rank;
+    }
+
+    @Id
+    @Column(name = "news_id")
+    private long newsId;
+
+    @Id
+    @Column(name = "rank_no")
+    private int rank;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "related_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private News related;
+
+    private float score;
+}
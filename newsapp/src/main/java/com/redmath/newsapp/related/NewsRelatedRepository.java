@@ -0,0 +1,19 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NewsRelatedRepository extends JpaRepository<NewsRelated, NewsRelated.Key> {
+
+    // primary key range read on news_related plus the joins NewsRepository's projections use
+    @Query("select new com.redmath.newsapp.dto.NewsResponse(n.id, n.title, n.excerpt, c.name, u.name, n.createdAt, n.updatedAt) " +
+            "from NewsRelated r join r.related n join n.category c join n.postedBy u " +
+            "where r.newsId = :newsId order by r.rank")
+    List<NewsResponse> findResponsesByNewsId(@Param("newsId") long newsId);
+}
@@ -0,0 +1,199 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsText;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps news_related filled with the most similar articles of every article, so /news/{id}/related is one key lookup.
+// A full rebuild weights the whole archive and computes every list on the fork/join pool, then replaces the table
+// in one transaction. In between, created and updated articles are folded into the model after commit and only the
+// lists they changed are rewritten. Changes arriving while a rebuild runs are replayed on the new model.
+// Rebuilds run on a thread of their own, so the shared scheduler thread is not held for the length of one.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedArticles {
+
+    private static final String INSERT = "insert into news_related (news_id, rank_no, related_id, score) values (?, ?, ?, ?)";
+
+    private final NewsRepository newsRepository;
+    private final NewsBodyCodec newsBodyCodec;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.related.size:5}")
+    private int size;
+
+    @Value("${app.related.title-boost:3.0}")
+    private float titleBoost;
+
+    @Value("${app.related.query-terms:20}")
+    private int queryTerms;
+
+    @Value("${app.related.max-df-ratio:0.1}")
+    private double maxDfRatio;
+
+    @Value("${app.related.batch-size:5000}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("related-rebuild").factory());
+    // set while a rebuild waits to start, so the schedule and an import arriving together run it once
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    private TfIdfModel model;
+    // non-null while a rebuild runs; guarded by this like model
+    private List<NewsChangedEvent> missed;
+
+    @Scheduled(fixedDelayString = "${app.related.rebuild-interval-ms:21600000}")
+    @EventListener(NewsImportedEvent.class)
+    public void requestRebuild() {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            queued.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("related articles rebuild failed, keeping the previous lists: {}", e.getMessage());
+            }
+        });
+    }
+
+    // interrupts a running rebuild between batches; the previous lists stay
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void rebuild() {
+        // callers other than the rebuild thread may ask at the same time
+        rebuilding.lock();
+        try {
+            rebuildModel();
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private void rebuildModel() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            missed = new ArrayList<>();
+        }
+        TfIdfModel fresh = new TfIdfModel(size, queryTerms, maxDfRatio);
+
+        long lastId = 0;
+        List<NewsText> batch;
+        do {
+            batch = newsRepository.findTexts(lastId, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                fresh.load(batch.parallelStream()
+                        .map(text -> ArticleTerms.of(text.id(), text.title(), newsBodyCodec.read(text), titleBoost))
+                        .toList());
+                lastId = batch.get(batch.size() - 1).id();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // shutting down: what arrived meanwhile still goes to the model that stays
+                synchronized (this) {
+                    if (model != null) {
+                        missed.forEach(this::apply);
+                    }
+                    missed = null;
+                }
+                return;
+            }
+        } while (batch.size() == batchSize);
+        fresh.computeAll();
+        long computed = System.currentTimeMillis();
+
+        Map<Long, List<TfIdfModel.Neighbour>> lists = fresh.all();
+        List<Object[]> rows = new ArrayList<>(lists.size() * size);
+        lists.forEach((id, neighbours) -> addRows(rows, id, neighbours));
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update("delete from news_related");
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+                }
+            });
+        } catch (DataAccessException e) {
+            // most likely an article deleted mid-rebuild; the previous lists stay until the next run
+            log.warn("could not store related articles, keeping the previous lists: {}", e.getMessage());
+        }
+
+        synchronized (this) {
+            model = fresh;
+            missed.forEach(this::apply);
+            missed = null;
+        }
+        log.info("related articles computed for {} articles in {} ms, stored in {} ms",
+                fresh.size(), computed - started, System.currentTimeMillis() - computed);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onNewsChanged(NewsChangedEvent event) {
+        if (missed != null) {
+            missed.add(event);
+        } else if (model != null) {
+            apply(event);
+        }
+    }
+
+    private void apply(NewsChangedEvent event) {
+        if (event.type() == NewsChangedEvent.Type.DELETED) {
+            // its own rows and its place in other lists go with the article through the foreign keys
+            model.remove(event.newsId());
+            return;
+        }
+        Map<Long, List<TfIdfModel.Neighbour>> changed =
+                model.add(ArticleTerms.of(event.newsId(), event.news().getTitle(), event.content(), titleBoost));
+        List<Object[]> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        changed.forEach((id, neighbours) -> {
+            ids.add(new Object[]{id});
+            addRows(rows, id, neighbours);
+        });
+        // we run after the article's transaction committed, so the rows need a transaction of their own
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("delete from news_related where news_id = ?", ids);
+                jdbcTemplate.batchUpdate(INSERT, rows);
+            });
+        } catch (DataAccessException e) {
+            log.warn("could not store related articles of {}, fixed by the next rebuild: {}", event.newsId(), e.getMessage());
+        }
+    }
+
+    private static void addRows(List<Object[]> rows, long id, List<TfIdfModel.Neighbour> neighbours) {
+        for (int rank = 0; rank < neighbours.size(); rank++) {
+            rows.add(new Object[]{id, rank, neighbours.get(rank).id(), neighbours.get(rank).score()});
+        }
+    }
+}
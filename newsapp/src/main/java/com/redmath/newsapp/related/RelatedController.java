@@ -0,0 +1,23 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/news/{id}/related")
+@RequiredArgsConstructor
+public class RelatedController {
+
+    private final RelatedService relatedService;
+
+    @GetMapping
+    public List<NewsResponse> related(@PathVariable Long id) {
+        return relatedService.getRelated(id);
+    }
+}
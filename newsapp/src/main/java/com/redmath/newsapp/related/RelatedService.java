@@ -0,0 +1,20 @@
+package com.redmath.newsapp.related;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RelatedService {
+
+    private final NewsRelatedRepository relatedRepository;
+
+    @Transactional(readOnly = true)
+    public List<NewsResponse> getRelated(long newsId) {
+        return relatedRepository.findResponsesByNewsId(newsId);
+    }
+}
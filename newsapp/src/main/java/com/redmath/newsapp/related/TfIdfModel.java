@@ -0,0 +1,362 @@
+package com.redmath.newsapp.related;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+// Unit length TF-IDF vectors of the articles and the k most similar articles of each.
+// Cosine similarity is then a dot product, summed through an inverted index so an article is only ever
+// compared with articles sharing one of its terms. The query side uses only an article's strongest terms
+// and skips terms found in too many articles, which keeps each lookup well below a scan of the archive.
+// Articles folded in later are weighted with the document frequencies of the moment; the periodic
+// full rebuild brings every weight up to date again.
+public class TfIdfModel {
+
+    public record Neighbour(long id, float score) {
+    }
+
+    // raw counts until weighted, then unit length weights ordered strongest first
+    private record Vector(int[] terms, float[] weights) {
+    }
+
+    private static final int LEAF_SIZE = 256;
+
+    private final int k;
+    private final int queryTerms;
+    private final double maxDfRatio;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private int[] df = new int[1024];
+    private Postings[] postings = new Postings[1024];
+
+    // one slot per article, a replaced or removed article leaves an empty slot behind
+    private long[] ids = new long[1024];
+    private Vector[] vectors = new Vector[1024];
+    private Neighbour[][] neighbours = new Neighbour[1024][];
+    private int slots;
+    private int articles;
+    private final Map<Long, Integer> slotOf = new HashMap<>();
+    // slots from here on hold the counts of loaded articles, weighted by computeAll once every document frequency is known
+    private int weighted;
+    private final Scratch foldInScratch = new Scratch(0);
+
+    public TfIdfModel(int k, int queryTerms, double maxDfRatio) {
+        this.k = k;
+        this.queryTerms = queryTerms;
+        this.maxDfRatio = maxDfRatio;
+    }
+
+    // term weights are raw counts, with title terms already boosted
+    public void load(List<ArticleTerms> batch) {
+        for (ArticleTerms article : batch) {
+            int slot = newSlot(article.id());
+            vectors[slot] = count(article);
+        }
+    }
+
+    // weights every loaded article and finds the neighbours of all of them, split across the fork/join pool
+    public void computeAll() {
+        IntStream.range(weighted, slots).parallel()
+                .filter(slot -> vectors[slot] != null)
+                .forEach(slot -> vectors[slot] = weigh(vectors[slot]));
+        for (int slot = weighted; slot < slots; slot++) {
+            if (vectors[slot] != null) {
+                index(slot, vectors[slot]);
+            }
+        }
+        weighted = slots;
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(slots));
+        ForkJoinPool.commonPool().invoke(new NeighbourTask(0, slots, scratch));
+    }
+
+    // adds or replaces one article and returns the ids whose neighbour lists changed, its own included
+    public synchronized Map<Long, List<Neighbour>> add(ArticleTerms article) {
+        remove(article.id());
+        int slot = newSlot(article.id());
+        index(slot, weigh(count(article)));
+        weighted = slots;
+        neighbours[slot] = topK(slot, foldInScratch);
+
+        Map<Long, List<Neighbour>> changed = new HashMap<>();
+        changed.put(article.id(), List.of(neighbours[slot]));
+        for (Neighbour neighbour : neighbours[slot]) {
+            int other = slotOf.get(neighbour.id());
+            if (offer(other, new Neighbour(article.id(), neighbour.score()))) {
+                changed.put(neighbour.id(), List.of(neighbours[other]));
+            }
+        }
+        return changed;
+    }
+
+    public synchronized void remove(long id) {
+        Integer slot = slotOf.remove(id);
+        if (slot == null) {
+            return;
+        }
+        Vector vector = vectors[slot];
+        vectors[slot] = null;
+        neighbours[slot] = null;
+        articles--;
+        if (vector != null) {
+            for (int term : vector.terms()) {
+                df[term]--;
+                // slots below weighted are in the postings; their entries are dropped once enough have died
+                if (slot < weighted) {
+                    postings[term].removed(vectors);
+                }
+            }
+        }
+    }
+
+    public synchronized List<Neighbour> neighbours(long id) {
+        Integer slot = slotOf.get(id);
+        return slot != null && neighbours[slot] != null ? List.of(neighbours[slot]) : List.of();
+    }
+
+    public synchronized Map<Long, List<Neighbour>> all() {
+        Map<Long, List<Neighbour>> all = new HashMap<>();
+        slotOf.forEach((id, slot) -> all.put(id, List.of(neighbours[slot])));
+        return all;
+    }
+
+    public synchronized int size() {
+        return articles;
+    }
+
+    private int newSlot(long id) {
+        if (slots == ids.length) {
+            int capacity = slots * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            vectors = Arrays.copyOf(vectors, capacity);
+            neighbours = Arrays.copyOf(neighbours, capacity);
+        }
+        ids[slots] = id;
+        slotOf.put(id, slots);
+        articles++;
+        return slots++;
+    }
+
+    private Vector count(ArticleTerms article) {
+        int size = article.counts().size();
+        int[] terms = new int[size];
+        float[] counts = new float[size];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : article.counts().entrySet()) {
+            // termId may grow df, so it has to run before df is read
+            int term = termId(entry.getKey());
+            df[term]++;
+            terms[i] = term;
+            counts[i] = entry.getValue();
+            i++;
+        }
+        return new Vector(terms, counts);
+    }
+
+    private int termId(String term) {
+        return dictionary.computeIfAbsent(term, t -> {
+            int id = dictionary.size();
+            if (id == df.length) {
+                df = Arrays.copyOf(df, id * 2);
+                postings = Arrays.copyOf(postings, id * 2);
+            }
+            postings[id] = new Postings();
+            return id;
+        });
+    }
+
+    // sublinear term frequency times smoothed idf, scaled to unit length
+    private Vector weigh(Vector counts) {
+        int size = counts.terms().length;
+        float[] weights = new float[size];
+        double norm = 0;
+        for (int i = 0; i < size; i++) {
+            double idf = Math.log((articles + 1.0) / (df[counts.terms()[i]] + 1.0)) + 1;
+            double weight = (1 + Math.log(counts.weights()[i])) * idf;
+            weights[i] = (float) weight;
+            norm += weight * weight;
+        }
+        float scale = norm > 0 ? (float) (1 / Math.sqrt(norm)) : 0;
+        // weights are positive, so their bits sort like the weights; the position rides in the low half
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] *= scale;
+            order[i] = (long) Float.floatToIntBits(weights[i]) << 32 | i;
+        }
+        Arrays.sort(order);
+        int[] sortedTerms = new int[size];
+        float[] sortedWeights = new float[size];
+        for (int i = 0; i < size; i++) {
+            int from = (int) order[size - 1 - i];
+            sortedTerms[i] = counts.terms()[from];
+            sortedWeights[i] = weights[from];
+        }
+        return new Vector(sortedTerms, sortedWeights);
+    }
+
+    private void index(int slot, Vector vector) {
+        vectors[slot] = vector;
+        for (int i = 0; i < vector.terms().length; i++) {
+            postings[vector.terms()[i]].add(slot, vector.weights()[i]);
+        }
+    }
+
+    private Neighbour[] topK(int slot, Scratch scratch) {
+        Vector vector = vectors[slot];
+        double[] scores = scratch.scores(slots);
+        int[] touched = scratch.touched(slots);
+        int touchedCount = 0;
+        int maxDf = Math.max(100, (int) (maxDfRatio * articles));
+
+        int terms = Math.min(queryTerms, vector.terms().length);
+        for (int q = 0; q < terms; q++) {
+            int term = vector.terms()[q];
+            if (df[term] > maxDf) {
+                continue;
+            }
+            Postings posting = postings[term];
+            float weight = vector.weights()[q];
+            for (int p = 0; p < posting.size; p++) {
+                int other = posting.slots[p];
+                if (other == slot || vectors[other] == null) {
+                    continue;
+                }
+                if (scores[other] == 0) {
+                    touched[touchedCount++] = other;
+                }
+                scores[other] += weight * posting.weights[p];
+            }
+        }
+
+        PriorityQueue<Neighbour> top = new PriorityQueue<>(k + 1, (a, b) -> Float.compare(a.score(), b.score()));
+        for (int t = 0; t < touchedCount; t++) {
+            int other = touched[t];
+            float score = (float) scores[other];
+            scores[other] = 0;
+            // most candidates share a word or two and never make the list, so they are not even allocated
+            if (top.size() == k && score <= top.peek().score()) {
+                continue;
+            }
+            top.offer(new Neighbour(ids[other], score));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+        Neighbour[] best = top.toArray(new Neighbour[0]);
+        Arrays.sort(best, (a, b) -> Float.compare(b.score(), a.score()));
+        return best;
+    }
+
+    // puts a new neighbour into an existing list if it ranks, dropping articles that are gone
+    private boolean offer(int slot, Neighbour candidate) {
+        List<Neighbour> list = new ArrayList<>(k + 1);
+        for (Neighbour neighbour : neighbours[slot]) {
+            if (slotOf.containsKey(neighbour.id())) {
+                list.add(neighbour);
+            }
+        }
+        if (list.size() >= k && list.get(k - 1).score() >= candidate.score()) {
+            return false;
+        }
+        list.add(candidate);
+        list.sort((a, b) -> Float.compare(b.score(), a.score()));
+        neighbours[slot] = list.subList(0, Math.min(k, list.size())).toArray(new Neighbour[0]);
+        return true;
+    }
+
+    private final class NeighbourTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final ThreadLocal<Scratch> scratch;
+
+        NeighbourTask(int from, int to, ThreadLocal<Scratch> scratch) {
+            this.from = from;
+            this.to = to;
+            this.scratch = scratch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Scratch own = scratch.get();
+                for (int slot = from; slot < to; slot++) {
+                    if (vectors[slot] != null) {
+                        neighbours[slot] = topK(slot, own);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighbourTask(from, middle, scratch), new NeighbourTask(middle, to, scratch));
+        }
+    }
+
+    // per-thread dense accumulators, cleared entry by entry after each article
+    private static final class Scratch {
+        private double[] scores;
+        private int[] touched;
+
+        Scratch(int size) {
+            scores = new double[size];
+            touched = new int[size];
+        }
+
+        double[] scores(int size) {
+            if (scores.length < size) {
+                scores = new double[size];
+            }
+            return scores;
+        }
+
+        int[] touched(int size) {
+            if (touched.length < size) {
+                touched = new int[size];
+            }
+            return touched;
+        }
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+        private int dead;
+
+        void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        // entries of removed articles stay until they are half the list, then the list is compacted in one pass
+        void removed(Vector[] vectors) {
+            if (++dead * 2 <= size) {
+                return;
+            }
+            int kept = 0;
+            for (int p = 0; p < size; p++) {
+                if (vectors[slots[p]] != null) {
+                    slots[kept] = slots[p];
+                    weights[kept] = weights[p];
+                    kept++;
+                }
+            }
+            size = kept;
+            dead = 0;
+            if (size < slots.length / 4) {
+                slots = Arrays.copyOf(slots, Math.max(4, size * 2));
+                weights = Arrays.copyOf(weights, slots.length);
+            }
+        }
+    }
+}
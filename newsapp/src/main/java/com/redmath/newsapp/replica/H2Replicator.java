@@ -0,0 +1,144 @@
+package com.redmath.newsapp.replica;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Local stand-in for database replication: copies the primary H2 database into the replica every lag interval.
+// Each round reads one consistent snapshot of the primary and replaces the replica's rows in a single transaction,
+// so replica readers see either the previous round or the new one, never a half-copied table.
+// It copies everything each time, which is fine for development data and nothing more.
+@RequiredArgsConstructor
+@Slf4j
+public class H2Replicator {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaRouting routing;
+
+    private volatile boolean started;
+    private long replicatedVersion = -1;
+
+    // after startup so the replica gets the schema as migrations left it
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws SQLException {
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection();
+             Statement read = source.createStatement(); Statement write = target.createStatement()) {
+            write.execute("DROP ALL OBJECTS");
+            try (ResultSet script = read.executeQuery("SCRIPT NODATA")) {
+                while (script.next()) {
+                    String sql = script.getString(1);
+                    if (!sql.startsWith("CREATE USER")) {
+                        write.execute(sql);
+                    }
+                }
+            }
+            // rows arrive table by table, so the replica cannot check foreign keys on the way in
+            write.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        started = true;
+        replicate();
+        routing.markInSync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.replica.lag-ms:1000}")
+    public synchronized void replicate() throws SQLException {
+        routing.evictExpired();
+        long version = routing.writeVersion();
+        if (!started || version == replicatedVersion) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        int rows = 0;
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            source.setAutoCommit(false);
+            source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            target.setAutoCommit(false);
+            try {
+                for (String table : tables(source)) {
+                    rows += copy(source, target, table);
+                }
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                source.rollback();
+            }
+        }
+        replicatedVersion = version;
+        log.debug("replicated {} rows in {} ms", rows, System.currentTimeMillis() - startedAt);
+    }
+
+    private List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet rs = statement.executeQuery("select table_name from information_schema.tables " +
+                     "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private int copy(Connection source, Connection target, String table) throws SQLException {
+        String quoted = '"' + table + '"';
+        try (Statement delete = target.createStatement()) {
+            delete.executeUpdate("delete from " + quoted);
+        }
+        try (Statement select = source.createStatement(); ResultSet rs = select.executeQuery("select * from " + quoted)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            StringBuilder names = new StringBuilder();
+            StringBuilder params = new StringBuilder();
+            for (int i = 1; i <= columns; i++) {
+                names.append(i > 1 ? ", " : "").append('"').append(meta.getColumnName(i)).append('"');
+                params.append(i > 1 ? ", ?" : "?");
+            }
+
+            int rows = 0;
+            try (PreparedStatement insert = target.prepareStatement(
+                    "insert into " + quoted + " (" + names + ") overriding system value values (" + params + ")")) {
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, value(rs.getObject(i)));
+                    }
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            return rows;
+        }
+    }
+
+    // lobs belong to the source connection, so they are copied out before crossing databases
+    private Object value(Object value) throws SQLException {
+        if (value instanceof Blob blob) {
+            return blob.getBytes(1, (int) blob.length());
+        }
+        if (value instanceof Clob clob) {
+            return clob.getSubString(1, (int) clob.length());
+        }
+        return value;
+    }
+}
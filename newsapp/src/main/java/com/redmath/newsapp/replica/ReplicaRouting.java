@@ -0,0 +1,99 @@
+package com.redmath.newsapp.replica;
+
+import com.redmath.newsapp.Application;
+import com.redmath.newsapp.user.CurrentUser;
+import com.redmath.newsapp.user.UserPrincipal;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Decides per connection whether the replica may serve it.
+// Only read-only transactions declared on our own services go there: Spring Data wraps every bare repository
+// call in a read-only transaction too, and those include the login and token lookups that must see a user
+// the moment it registers. A user who just wrote keeps reading from the primary for stickyMs.
+public class ReplicaRouting {
+
+    private static final String OUR_PACKAGE = Application.class.getPackageName() + ".";
+
+    private final long stickyMs;
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    // bumped once a write is committed, so the replicator can skip idle rounds; bumping when the connection
+    // is taken would let a round that copies before the commit mark the write as replicated
+    private final AtomicLong writeVersion = new AtomicLong();
+    private volatile boolean inSync;
+
+    public ReplicaRouting(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    public boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        writeVersion.incrementAndGet();
+                    }
+                });
+            }
+            UserPrincipal user = CurrentUser.get();
+            if (user != null) {
+                stickyUntil.put(user.id(), System.currentTimeMillis() + stickyMs);
+            }
+            return false;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (!inSync || transaction == null || !transaction.startsWith(OUR_PACKAGE)) {
+            return false;
+        }
+        UserPrincipal user = CurrentUser.get();
+        return user == null || !isSticky(user.id());
+    }
+
+    public boolean isSticky(long userId) {
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until < now);
+    }
+
+    // outside a Spring transaction every statement commits on its own, so the write counts once the connection is closed
+    public Connection countWritesOnClose(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (method.getName().equals("close")) {
+                            writeVersion.incrementAndGet();
+                        }
+                    }
+                });
+    }
+
+    public long writeVersion() {
+        return writeVersion.get();
+    }
+
+    public void markInSync() {
+        inSync = true;
+    }
+}
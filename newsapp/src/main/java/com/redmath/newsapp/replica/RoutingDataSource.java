@@ -0,0 +1,40 @@
+package com.redmath.newsapp.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only
+// known once the first statement runs, not when the transaction manager opens the connection.
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaRouting routing;
+
+    public RoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.routing = routing;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.useReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    // without a transaction the connection always goes to the primary and writes commit as they run
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return TransactionSynchronizationManager.isSynchronizationActive() ? connection : routing.countWritesOnClose(connection);
+    }
+}
@@ -0,0 +1,47 @@
+package com.redmath.newsapp.revision;
+
+import com.redmath.newsapp.news.News;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// One saved version of an article. A snapshot holds the full text; any other revision holds the word delta
+// from the revision before it, and depth counts the deltas back to the nearest snapshot.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "news_revision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_revision_news_revision", columnNames = {"news_id", "revision"}))
+public class NewsRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "news_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private News news;
+
+    private int revision;
+
+    private String title;
+
+    private boolean snapshot;
+
+    private int depth;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    private boolean compressed;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.redmath.newsapp.revision;
+
+import com.redmath.newsapp.dto.RevisionResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NewsRevisionRepository extends JpaRepository<NewsRevision, Long> {
+
+    Optional<NewsRevision> findFirstByNewsIdOrderByRevisionDesc(long newsId);
+
+    Optional<NewsRevision> findByNewsIdAndRevision(long newsId, int revision);
+
+    // the snapshot a revision is built from and every delta after it, oldest first
+    @Query("select r from NewsRevision r where r.news.id = :newsId and r.revision between :from and :to order by r.revision")
+    List<NewsRevision> findChain(@Param("newsId") long newsId, @Param("from") int from, @Param("to") int to);
+
+    @Query("select new com.redmath.newsapp.dto.RevisionResponse(r.revision, r.title, r.snapshot, r.createdAt) " +
+            "from NewsRevision r where r.news.id = :newsId order by r.revision desc")
+    List<RevisionResponse> findResponsesByNewsId(@Param("newsId") long newsId);
+}
@@ -0,0 +1,53 @@
+package com.redmath.newsapp.revision;
+
+import com.redmath.newsapp.dto.NewsDetailResponse;
+import com.redmath.newsapp.dto.RevisionDetailResponse;
+import com.redmath.newsapp.dto.RevisionDiffResponse;
+import com.redmath.newsapp.dto.RevisionResponse;
+import com.redmath.newsapp.news.NewsService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/news/{id}/revisions")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "BearerAuth")
+@PreAuthorize("hasRole('EDITOR')")
+public class RevisionController {
+
+    private final RevisionService revisionService;
+    private final NewsService newsService;
+
+    @GetMapping
+    public List<RevisionResponse> list(@PathVariable Long id) {
+        return revisionService.list(id);
+    }
+
+    @GetMapping("/{revision}")
+    public RevisionDetailResponse get(@PathVariable Long id, @PathVariable int revision) {
+        return revisionService.get(id, revision);
+    }
+
+    @GetMapping("/diff")
+    public RevisionDiffResponse diff(@PathVariable Long id, @RequestParam int from, @RequestParam int to) {
+        return revisionService.diff(id, from, to);
+    }
+
+    @PostMapping("/{revision}/restore")
+    public NewsDetailResponse restore(@PathVariable Long id, @PathVariable int revision) {
+        return newsService.restoreRevision(id, revision);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public Map<String, String> handlerRuntimeException(RuntimeException ex) {
+        log.info("exception::" + ex.getMessage());
+        return Map.of("revision_error:", String.valueOf(ex.getMessage()));
+    }
+}
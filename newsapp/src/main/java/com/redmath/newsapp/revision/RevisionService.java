@@ -0,0 +1,119 @@
+package com.redmath.newsapp.revision;
+
+import com.redmath.newsapp.dto.RevisionDetailResponse;
+import com.redmath.newsapp.dto.RevisionDiffResponse;
+import com.redmath.newsapp.dto.RevisionResponse;
+import com.redmath.newsapp.news.News;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.user.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Revision history of articles. Every save adds a revision holding the word delta from the one before,
+// except that every max-deltas + 1 revisions a full snapshot is stored instead, so rebuilding any revision
+// applies at most max-deltas deltas. A delta that would not be smaller than the text is stored as a snapshot too.
+@Service
+@RequiredArgsConstructor
+public class RevisionService {
+
+    private final NewsRevisionRepository revisionRepository;
+    private final NewsRepository newsRepository;
+    private final NewsBodyCodec newsBodyCodec;
+
+    @Value("${app.revisions.max-deltas:8}")
+    private int maxDeltas;
+
+    @Value("${app.revisions.max-edits:1000}")
+    private int maxEdits;
+
+    // called by NewsService inside its transaction
+    public void recordCreated(News news, String content) {
+        revisionRepository.save(snapshot(news, 1, news.getTitle(), content, news.getCreatedAt()));
+    }
+
+    // previousTitle and previousContent are what the article held before this update; NewsService holds the
+    // article's row lock, so the latest revision read here is still the latest when the next one is saved
+    public void recordUpdated(News news, String previousTitle, String previousContent, String content, LocalDateTime previousUpdatedAt) {
+        NewsRevision latest = revisionRepository.findFirstByNewsIdOrderByRevisionDesc(news.getId())
+                // articles written before revisions were kept start their history with the text they had
+                .orElseGet(() -> revisionRepository.save(snapshot(news, 1, previousTitle, previousContent, previousUpdatedAt)));
+
+        int revision = latest.getRevision() + 1;
+        if (latest.getDepth() >= maxDeltas) {
+            revisionRepository.save(snapshot(news, revision, news.getTitle(), content, news.getUpdatedAt()));
+            return;
+        }
+        NewsBodyCodec.Encoded full = newsBodyCodec.encode(content);
+        NewsBodyCodec.Encoded delta = newsBodyCodec.encode(
+                WordDiff.encode(WordDiff.diff(nullToEmpty(previousContent), nullToEmpty(content), maxEdits)));
+        if (delta.data().length >= full.data().length) {
+            revisionRepository.save(snapshot(news, revision, news.getTitle(), content, news.getUpdatedAt()));
+            return;
+        }
+        revisionRepository.save(NewsRevision.builder().news(news).revision(revision).title(news.getTitle())
+                .snapshot(false).depth(latest.getDepth() + 1).data(delta.data()).compressed(delta.compressed())
+                .createdAt(news.getUpdatedAt()).build());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevisionResponse> list(long newsId) {
+        checkOwner(newsId);
+        return revisionRepository.findResponsesByNewsId(newsId);
+    }
+
+    @Transactional(readOnly = true)
+    public RevisionDetailResponse get(long newsId, int revision) {
+        checkOwner(newsId);
+        NewsRevision target = find(newsId, revision);
+        return RevisionDetailResponse.builder().revision(revision).title(target.getTitle())
+                .content(rebuild(newsId, target)).createdAt(String.valueOf(target.getCreatedAt())).build();
+    }
+
+    @Transactional(readOnly = true)
+    public RevisionDiffResponse diff(long newsId, int from, int to) {
+        checkOwner(newsId);
+        NewsRevision older = find(newsId, from);
+        NewsRevision newer = find(newsId, to);
+        List<RevisionDiffResponse.Change> changes = WordDiff.diff(rebuild(newsId, older), rebuild(newsId, newer), maxEdits).stream()
+                .map(chunk -> new RevisionDiffResponse.Change(chunk.op().name(), chunk.text()))
+                .toList();
+        return RevisionDiffResponse.builder().from(from).to(to).fromTitle(older.getTitle()).toTitle(newer.getTitle())
+                .changes(changes).build();
+    }
+
+    private String rebuild(long newsId, NewsRevision target) {
+        List<NewsRevision> chain = target.isSnapshot() ? List.of(target)
+                : revisionRepository.findChain(newsId, target.getRevision() - target.getDepth(), target.getRevision());
+        String text = newsBodyCodec.read(chain.get(0).getData(), chain.get(0).isCompressed());
+        for (NewsRevision delta : chain.subList(1, chain.size())) {
+            text = WordDiff.apply(text, newsBodyCodec.read(delta.getData(), delta.isCompressed()));
+        }
+        return text;
+    }
+
+    private NewsRevision find(long newsId, int revision) {
+        return revisionRepository.findByNewsIdAndRevision(newsId, revision).orElseThrow(() -> new RuntimeException("Revision not found"));
+    }
+
+    private void checkOwner(long newsId) {
+        News news = newsRepository.findById(newsId).orElseThrow(() -> new RuntimeException("News not found"));
+        if (news.getPostedBy().getId() != CurrentUser.get().id())
+            throw new RuntimeException("Not your news article");
+    }
+
+    private NewsRevision snapshot(News news, int revision, String title, String content, LocalDateTime createdAt) {
+        NewsBodyCodec.Encoded full = newsBodyCodec.encode(content);
+        return NewsRevision.builder().news(news).revision(revision).title(title).snapshot(true).depth(0)
+                .data(full.data()).compressed(full.compressed()).createdAt(createdAt).build();
+    }
+
+    private static String nullToEmpty(String text) {
+        return text != null ? text : "";
+    }
+}
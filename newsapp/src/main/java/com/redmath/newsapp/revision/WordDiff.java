@@ -0,0 +1,205 @@
+package com.redmath.newsapp.revision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Word level diff between two texts, and the compact delta form revisions are stored in.
+// A token is a word with the whitespace that follows it, so joining the tokens gives the text back exactly.
+// The common head and tail are cut off first; the rest goes through Myers' O((N+M)D) algorithm, and when
+// it needs more than maxEdits edits the middle is simply replaced as a whole.
+public final class WordDiff {
+
+    public enum Op {
+        EQUAL,
+        DELETE,
+        INSERT
+    }
+
+    // count is the number of tokens, text their concatenation
+    public record Chunk(Op op, int count, String text) {
+    }
+
+    private WordDiff() {
+    }
+
+    public static List<Chunk> diff(String from, String to, int maxEdits) {
+        List<String> a = tokenize(from);
+        List<String> b = tokenize(to);
+
+        int head = 0;
+        while (head < a.size() && head < b.size() && a.get(head).equals(b.get(head))) {
+            head++;
+        }
+        int tail = 0;
+        while (tail < a.size() - head && tail < b.size() - head
+                && a.get(a.size() - 1 - tail).equals(b.get(b.size() - 1 - tail))) {
+            tail++;
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        add(chunks, Op.EQUAL, a.subList(0, head));
+        List<String> middleA = a.subList(head, a.size() - tail);
+        List<String> middleB = b.subList(head, b.size() - tail);
+        if (!myers(middleA, middleB, maxEdits, chunks)) {
+            add(chunks, Op.DELETE, middleA);
+            add(chunks, Op.INSERT, middleB);
+        }
+        add(chunks, Op.EQUAL, a.subList(a.size() - tail, a.size()));
+        return chunks;
+    }
+
+    // "=n;" keeps n tokens of the base, "-n;" skips n, "+len:text" inserts len characters
+    public static String encode(List<Chunk> chunks) {
+        StringBuilder delta = new StringBuilder();
+        for (Chunk chunk : chunks) {
+            switch (chunk.op()) {
+                case EQUAL -> delta.append('=').append(chunk.count()).append(';');
+                case DELETE -> delta.append('-').append(chunk.count()).append(';');
+                case INSERT -> delta.append('+').append(chunk.text().length()).append(':').append(chunk.text());
+            }
+        }
+        return delta.toString();
+    }
+
+    public static String apply(String base, String delta) {
+        List<String> tokens = tokenize(base);
+        StringBuilder text = new StringBuilder(base.length() + 64);
+        int position = 0;
+        int i = 0;
+        while (i < delta.length()) {
+            char op = delta.charAt(i);
+            if (op == '+') {
+                int colon = delta.indexOf(':', i);
+                int length = Integer.parseInt(delta, i + 1, colon, 10);
+                text.append(delta, colon + 1, colon + 1 + length);
+                i = colon + 1 + length;
+                continue;
+            }
+            int end = delta.indexOf(';', i);
+            if (end < 0) {
+                throw new IllegalStateException("Corrupt revision delta");
+            }
+            int count = Integer.parseInt(delta, i + 1, end, 10);
+            if (op == '=') {
+                for (int t = position; t < position + count; t++) {
+                    text.append(tokens.get(t));
+                }
+            } else if (op != '-') {
+                throw new IllegalStateException("Corrupt revision delta");
+            }
+            position += count;
+            i = end + 1;
+        }
+        return text.toString();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            tokens.add(text.substring(start, i));
+            start = i;
+        }
+        return tokens;
+    }
+
+    private static boolean myers(List<String> a, List<String> b, int maxEdits, List<Chunk> chunks) {
+        int n = a.size();
+        int m = b.size();
+        int limit = Math.min(n + m, maxEdits);
+        int offset = limit + 1;
+        int[] v = new int[2 * limit + 3];
+        // trace.get(d) holds diagonals -d-1..d+1 as they were before step d
+        List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= limit; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    backtrack(a, b, trace, chunks);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backtrack(List<String> a, List<String> b, List<int[]> trace, List<Chunk> chunks) {
+        // edits come out last to first, one token at a time
+        List<Op> ops = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        int x = a.size();
+        int y = b.size();
+        for (int d = trace.size() - 1; d >= 0; d--) {
+            int[] v = trace.get(d);
+            int k = x - y;
+            int previousK = k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1]) ? k + 1 : k - 1;
+            int previousX = v[previousK + d + 1];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                ops.add(Op.EQUAL);
+                tokens.add(a.get(x - 1));
+                x--;
+                y--;
+            }
+            if (d > 0) {
+                if (x == previousX) {
+                    ops.add(Op.INSERT);
+                    tokens.add(b.get(y - 1));
+                } else {
+                    ops.add(Op.DELETE);
+                    tokens.add(a.get(x - 1));
+                }
+            }
+            x = previousX;
+            y = previousY;
+        }
+
+        for (int i = ops.size() - 1; i >= 0; ) {
+            Op op = ops.get(i);
+            int end = i;
+            while (i >= 0 && ops.get(i) == op) {
+                i--;
+            }
+            add(chunks, op, reversed(tokens.subList(i + 1, end + 1)));
+        }
+    }
+
+    private static List<String> reversed(List<String> tokens) {
+        List<String> copy = new ArrayList<>(tokens);
+        Collections.reverse(copy);
+        return copy;
+    }
+
+    private static void add(List<Chunk> chunks, Op op, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String text = String.join("", tokens);
+        Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (last != null && last.op() == op) {
+            chunks.set(chunks.size() - 1, new Chunk(op, last.count() + tokens.size(), last.text() + text));
+        } else {
+            chunks.add(new Chunk(op, tokens.size(), text));
+        }
+    }
+}
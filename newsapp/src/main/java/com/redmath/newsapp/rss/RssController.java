@@ -0,0 +1,48 @@
+package com.redmath.newsapp.rss;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class RssController {
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+
+    private final RssFeeds rssFeeds;
+
+    @GetMapping("/news/rss")
+    public ResponseEntity<byte[]> all() {
+        return respond(rssFeeds.global());
+    }
+
+    @GetMapping("/news/category/{id}/rss")
+    public ResponseEntity<byte[]> byCategory(@PathVariable Long id) {
+        return respond(rssFeeds.category(id));
+    }
+
+    // Spring answers 304 itself when If-None-Match or If-Modified-Since match these headers
+    private static ResponseEntity<byte[]> respond(RssFeeds.Feed feed) {
+        return ResponseEntity.ok()
+                .contentType(RSS)
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .body(feed.xml());
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Map<String, String>> handlerRuntimeException(RuntimeException ex) {
+        log.info("exception::" + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("news_error:", ex.getMessage()));
+    }
+}
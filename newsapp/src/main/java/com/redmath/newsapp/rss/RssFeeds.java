@@ -0,0 +1,160 @@
+package com.redmath.newsapp.rss;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import javax.xml.stream.XMLStreamException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The RSS documents of the global and per-category feeds, kept as ready bytes with a strong ETag.
+// A feed is built on its first poll and served from memory until an article in it, or one that would join it,
+// changes; the next poll after that builds it again. Aggregators polling every minute mostly get a 304.
+@Component
+@RequiredArgsConstructor
+public class RssFeeds {
+
+    public record Feed(byte[] xml, String etag, long lastModified) {
+    }
+
+    // category ids start at 1
+    private static final long GLOBAL = 0;
+
+    private static final class Slot {
+        // the last feed built, served while current
+        private Feed feed;
+        private boolean current;
+        // bumped by every change in scope, so a build that raced with one is not kept
+        private long version;
+        private Set<Long> ids = Set.of();
+        // createdAt of the oldest article held, null while the feed is not full
+        private LocalDateTime oldest;
+        private final Object building = new Object();
+    }
+
+    private final NewsRepository newsRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${app.rss.size:50}")
+    private int size;
+
+    @Value("${app.rss.title:News App}")
+    private String title;
+
+    @Value("${app.rss.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    public Feed global() {
+        return feed(GLOBAL);
+    }
+
+    public Feed category(long categoryId) {
+        return feed(categoryId);
+    }
+
+    private Feed feed(long key) {
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        synchronized (slot.building) {
+            long version;
+            synchronized (slot) {
+                if (slot.current) {
+                    return slot.feed;
+                }
+                version = slot.version;
+            }
+            try {
+                return build(key, slot, version);
+            } catch (RuntimeException e) {
+                // an unknown category must not leave a slot behind
+                slots.remove(key, slot);
+                throw e;
+            }
+        }
+    }
+
+    private Feed build(long key, Slot slot, long version) {
+        // bare repository calls read from the primary, so a rebuild right after a change sees it
+        RssWriter.Channel channel;
+        List<NewsResponse> news;
+        if (key == GLOBAL) {
+            channel = new RssWriter.Channel(title, baseUrl + "/news", "Latest news", baseUrl + "/news/rss");
+            news = newsRepository.findFeed(null, null, Limit.of(size));
+        } else {
+            Category category = categoryRepository.findById(key)
+                    .orElseThrow(() -> new RuntimeException("Category not found"));
+            channel = new RssWriter.Channel(title + " - " + category.getName(), baseUrl + "/news/category/" + key,
+                    "Latest " + category.getName() + " news", baseUrl + "/news/category/" + key + "/rss");
+            news = newsRepository.findCategoryFeed(key, null, null, Limit.of(size));
+        }
+        byte[] xml;
+        try {
+            xml = RssWriter.write(channel, baseUrl, news);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("could not write RSS feed", e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(xml) + "\"";
+
+        synchronized (slot) {
+            Feed previous = slot.feed;
+            // a change that did not alter the document, such as an edited body, keeps Last-Modified too
+            long lastModified = previous != null && previous.etag().equals(etag)
+                    ? previous.lastModified() : System.currentTimeMillis();
+            Feed feed = new Feed(xml, etag, lastModified);
+            if (slot.version == version) {
+                slot.feed = feed;
+                slot.current = true;
+                Set<Long> ids = new HashSet<>();
+                news.forEach(item -> ids.add(item.getId()));
+                slot.ids = ids;
+                slot.oldest = news.size() == size ? LocalDateTime.parse(news.get(news.size() - 1).getCreatedAt()) : null;
+            }
+            return feed;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        slots.forEach((key, slot) -> {
+            synchronized (slot) {
+                // a build in progress may have read the article before this change committed
+                if (!slot.current || inScope(key, slot, event)) {
+                    slot.current = false;
+                    slot.version++;
+                }
+            }
+        });
+    }
+
+    private boolean inScope(long key, Slot slot, NewsChangedEvent event) {
+        if (slot.ids.contains(event.newsId())) {
+            return true;
+        }
+        if (event.type() == NewsChangedEvent.Type.DELETED || (key != GLOBAL && key != event.categoryId())) {
+            return false;
+        }
+        // an article older than everything in a full feed does not make it in
+        return slot.oldest == null || !LocalDateTime.parse(event.news().getCreatedAt()).isBefore(slot.oldest);
+    }
+
+    @EventListener(NewsImportedEvent.class)
+    public void onNewsImported() {
+        slots.clear();
+    }
+}
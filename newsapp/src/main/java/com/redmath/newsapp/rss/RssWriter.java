@@ -0,0 +1,79 @@
+package com.redmath.newsapp.rss;
+
+import com.redmath.newsapp.dto.NewsResponse;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Writes an RSS 2.0 document of the given articles, newest first.
+// Nothing in it depends on when it was written, so the same articles always give the same bytes and ETag.
+final class RssWriter {
+
+    record Channel(String title, String link, String description, String self) {
+    }
+
+    private static final String ATOM = "http://www.w3.org/2005/Atom";
+    private static final XMLOutputFactory OUTPUT = XMLOutputFactory.newInstance();
+
+    private RssWriter() {
+    }
+
+    static byte[] write(Channel channel, String baseUrl, List<NewsResponse> news) throws XMLStreamException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024 + news.size() * 512);
+        XMLStreamWriter xml = OUTPUT.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement("rss");
+        xml.writeAttribute("version", "2.0");
+        xml.writeNamespace("atom", ATOM);
+        xml.writeStartElement("channel");
+        element(xml, "title", channel.title());
+        element(xml, "link", channel.link());
+        element(xml, "description", channel.description());
+        xml.writeEmptyElement("atom", "link", ATOM);
+        xml.writeAttribute("href", channel.self());
+        xml.writeAttribute("rel", "self");
+        xml.writeAttribute("type", "application/rss+xml");
+        if (!news.isEmpty()) {
+            element(xml, "pubDate", rfc1123(news.get(0).getCreatedAt()));
+        }
+        for (NewsResponse item : news) {
+            String link = baseUrl + "/news/" + item.getId();
+            xml.writeStartElement("item");
+            element(xml, "title", item.getTitle());
+            element(xml, "link", link);
+            xml.writeStartElement("guid");
+            xml.writeAttribute("isPermaLink", "true");
+            xml.writeCharacters(link);
+            xml.writeEndElement();
+            element(xml, "description", item.getExcerpt());
+            element(xml, "category", item.getCategoryName());
+            element(xml, "pubDate", rfc1123(item.getCreatedAt()));
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.close();
+        return out.toByteArray();
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        if (text == null) {
+            return;
+        }
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private static String rfc1123(String createdAt) {
+        return LocalDateTime.parse(createdAt).atZone(ZoneId.systemDefault()).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+}
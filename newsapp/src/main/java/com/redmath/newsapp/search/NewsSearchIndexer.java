@@ -0,0 +1,132 @@
+package com.redmath.newsapp.search;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsImportedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsText;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fills the SearchIndex from the archive on startup and after imports, then keeps it current after each commit.
+// A rebuild runs on its own thread into a fresh index that replaces the served one only once complete, so
+// searches keep their full results meanwhile; until the first rebuild finishes after startup they find nothing.
+// Changes committed while a rebuild reads the archive may or may not be in what it read, so they are replayed
+// onto the fresh index before it is swapped in.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsSearchIndexer {
+
+    private final SearchIndex searchIndex;
+    private final NewsRepository newsRepository;
+    private final NewsBodyCodec newsBodyCodec;
+
+    @Value("${app.search.rebuild-batch-size:5000}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("search-index").factory());
+    // set while a rebuild waits to start, so requests arriving together run it once
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    // non-null while a rebuild runs; guarded by this
+    private List<NewsChangedEvent> missed;
+
+    @EventListener({ApplicationReadyEvent.class, NewsImportedEvent.class})
+    public void requestRebuild() {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            queued.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("search index rebuild failed, keeping the current index: {}", e.getMessage());
+            }
+        });
+    }
+
+    // interrupts a running rebuild between batches; the served index stays as it is
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // loads the archive in id order batch by batch and tokenizes each batch across all cores
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            rebuildIndex();
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            missed = new ArrayList<>();
+        }
+        SearchIndex fresh = searchIndex.emptyCopy();
+
+        long lastId = 0;
+        List<NewsText> batch;
+        do {
+            batch = newsRepository.findTexts(lastId, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                fresh.addAll(batch.parallelStream()
+                        .map(text -> fresh.analyze(new SearchDocument(text.id(), text.title(), newsBodyCodec.read(text))))
+                        .toList());
+                lastId = batch.get(batch.size() - 1).id();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // the served index got every change meanwhile, so it needs no replay
+                synchronized (this) {
+                    missed = null;
+                }
+                return;
+            }
+        } while (batch.size() == batchSize);
+
+        synchronized (this) {
+            missed.forEach(event -> apply(fresh, event));
+            searchIndex.replaceWith(fresh);
+            missed = null;
+        }
+        log.info("search index rebuilt with {} articles in {} ms", searchIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onNewsChanged(NewsChangedEvent event) {
+        if (missed != null) {
+            missed.add(event);
+        }
+        // the served index stays current while a rebuild runs
+        apply(searchIndex, event);
+    }
+
+    private static void apply(SearchIndex index, NewsChangedEvent event) {
+        if (event.type() == NewsChangedEvent.Type.DELETED) {
+            index.remove(event.newsId());
+        } else {
+            NewsResponse news = event.news();
+            index.index(new SearchDocument(news.getId(), news.getTitle(), event.content()));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.redmath.newsapp.search;
+
+public record SearchDocument(long id, String title, String content) {
+}
@@ -0,0 +1,6 @@
+package com.redmath.newsapp.search;
+
+import java.util.List;
+
+public record SearchHits(long total, List<Long> ids) {
+}
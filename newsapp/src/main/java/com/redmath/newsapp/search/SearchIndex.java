@@ -0,0 +1,189 @@
+package com.redmath.newsapp.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over news titles and bodies, ranked with BM25.
+// Title terms count titleBoost times, so a match in the headline outranks one deep in the body.
+@Component
+public class SearchIndex {
+
+    record AnalyzedDocument(long id, Map<String, Float> weights, float length) {
+    }
+
+    private record Hit(long id, double score) {
+    }
+
+    private static final Comparator<Hit> BY_RANK = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+
+    private final float titleBoost;
+    private final float k1;
+    private final float b;
+
+    // guards the three below, which a rebuild replaces together
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private Map<Long, AnalyzedDocument> documents = new HashMap<>();
+    private double totalLength;
+
+    public SearchIndex(@Value("${app.search.title-boost:3.0}") float titleBoost,
+                       @Value("${app.search.k1:1.2}") float k1,
+                       @Value("${app.search.b:0.75}") float b) {
+        this.titleBoost = titleBoost;
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    AnalyzedDocument analyze(SearchDocument document) {
+        Map<String, Float> weights = new HashMap<>();
+        List<String> titleTerms = TextAnalyzer.analyze(document.title());
+        List<String> bodyTerms = TextAnalyzer.analyze(document.content());
+        titleTerms.forEach(term -> weights.merge(term, titleBoost, Float::sum));
+        bodyTerms.forEach(term -> weights.merge(term, 1f, Float::sum));
+        return new AnalyzedDocument(document.id(), weights, titleTerms.size() * titleBoost + bodyTerms.size());
+    }
+
+    public void index(SearchDocument document) {
+        AnalyzedDocument analyzed = analyze(document);
+        lock.writeLock().lock();
+        try {
+            removeLocked(analyzed.id());
+            addLocked(analyzed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void addAll(Collection<AnalyzedDocument> analyzed) {
+        lock.writeLock().lock();
+        try {
+            for (AnalyzedDocument document : analyzed) {
+                removeLocked(document.id());
+                addLocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // an empty index with the same ranking settings, to be built on the side and passed to replaceWith
+    SearchIndex emptyCopy() {
+        return new SearchIndex(titleBoost, k1, b);
+    }
+
+    // takes over the contents of a fully built index in one step; built must not be used afterwards
+    void replaceWith(SearchIndex built) {
+        lock.writeLock().lock();
+        built.lock.readLock().lock();
+        try {
+            postings = built.postings;
+            documents = built.documents;
+            totalLength = built.totalLength;
+        } finally {
+            built.lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty() || offset < 0 || limit <= 0) {
+            return new SearchHits(0, List.of());
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            if (count == 0) {
+                return new SearchHits(0, List.of());
+            }
+            double averageLength = totalLength / count;
+            for (String term : terms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                    float tf = entry.getValue();
+                    float length = documents.get(entry.getKey()).length();
+                    double norm = k1 * (1 - b + b * length / averageLength);
+                    scores.merge(entry.getKey(), idf * tf * (k1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (offset >= scores.size()) {
+            return new SearchHits(scores.size(), List.of());
+        }
+        // keep only the best offset + limit hits instead of sorting every match; in long so a deep page cannot overflow
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        PriorityQueue<Hit> top = new PriorityQueue<>(wanted + 1, BY_RANK);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(new Hit(entry.getKey(), entry.getValue()));
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(BY_RANK.reversed());
+
+        List<Long> ids = ranked.stream().skip(offset).map(Hit::id).toList();
+        return new SearchHits(scores.size(), ids);
+    }
+
+    private void addLocked(AnalyzedDocument document) {
+        documents.put(document.id(), document);
+        totalLength += document.length();
+        document.weights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), weight));
+    }
+
+    private void removeLocked(long id) {
+        AnalyzedDocument previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.weights().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.redmath.newsapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Lowercases, splits on anything that is not a letter or digit and strips common English suffixes.
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                token.append(Character.toLowerCase(ch));
+            } else if (!token.isEmpty()) {
+                terms.add(stem(token.toString()));
+                token.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String term) {
+        if (term.length() <= 3) {
+            return term;
+        }
+        if (term.endsWith("sses")) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.endsWith("ing") && term.length() > 5) {
+            return undouble(term.substring(0, term.length() - 3));
+        }
+        if (term.endsWith("ed") && term.length() > 4) {
+            return undouble(term.substring(0, term.length() - 2));
+        }
+        if (term.endsWith("ly") && term.length() > 4) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    // running -> runn -> run, stopped -> stopp -> stop
+    private static String undouble(String term) {
+        int n = term.length();
+        if (n > 2 && term.charAt(n - 1) == term.charAt(n - 2) && "lsz".indexOf(term.charAt(n - 1)) < 0) {
+            return term.substring(0, n - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,192 @@
+package com.redmath.newsapp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Throttles POST /auth/login and /auth/register per client IP and per email before any database or bcrypt work.
+@Component
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    // login and register bodies are a few hundred bytes, so the whole body is buffered and anything larger refused
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final ObjectMapper objectMapper;
+    private final TokenBuckets byIp;
+    private final TokenBuckets byEmail;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+    private final Counter allowed;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper,
+                               @Value("${app.rate-limit.ip.capacity:20}") int ipCapacity,
+                               @Value("${app.rate-limit.ip.per-minute:30}") int ipPerMinute,
+                               @Value("${app.rate-limit.email.capacity:5}") int emailCapacity,
+                               @Value("${app.rate-limit.email.per-minute:5}") int emailPerMinute,
+                               MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.byIp = new TokenBuckets(ipCapacity, ipPerMinute);
+        this.byEmail = new TokenBuckets(emailCapacity, emailPerMinute);
+
+        this.allowed = Counter.builder("auth.rate_limit.allowed").register(meterRegistry);
+        this.ipRejected = Counter.builder("auth.rate_limit.rejected").tag("key", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("auth.rate_limit.rejected").tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.buckets", byIp, TokenBuckets::size).tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.buckets", byEmail, TokenBuckets::size).tag("key", "email").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !"POST".equals(request.getMethod()) || !(path.equals("/auth/login") || path.equals("/auth/register"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        long waitMs = byIp.tryAcquire(request.getRemoteAddr(), now);
+        if (waitMs > 0) {
+            ipRejected.increment();
+            reject(response, waitMs);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"auth_error\":\"Request body too large\"}");
+            return;
+        }
+        BufferedRequest buffered = new BufferedRequest(request, body);
+        String email = buffered.email(objectMapper);
+        if (email != null) {
+            waitMs = byEmail.tryAcquire(email, now);
+            if (waitMs > 0) {
+                emailRejected.increment();
+                reject(response, waitMs);
+                return;
+            }
+        }
+        allowed.increment();
+        filterChain.doFilter(buffered, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        int evicted = byIp.evictIdle(now) + byEmail.evictIdle(now);
+        log.debug("evicted {} idle rate limit buckets", evicted);
+    }
+
+    private void reject(HttpServletResponse response, long waitMs) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"auth_error\":\"Too many requests, try again later\"}");
+    }
+
+    // replays the buffered body to the controller, which reads it as if it came from the client
+    private static class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final BodyInputStream input;
+
+        BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+            this.input = new BodyInputStream(body);
+        }
+
+        String email(ObjectMapper objectMapper) {
+            try {
+                JsonNode json = objectMapper.readTree(body);
+                JsonNode email = json != null ? json.get("email") : null;
+                return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+            } catch (IOException e) {
+                // malformed, the controller will reject it anyway
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return input;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class BodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream body;
+
+        BodyInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return body.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return body.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        // everything is in memory, so a read never blocks
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            try {
+                if (!isFinished()) {
+                    listener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    listener.onAllDataRead();
+                }
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
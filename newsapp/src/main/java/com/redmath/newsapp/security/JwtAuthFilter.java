@@ -1,7 +1,9 @@
 package com.redmath.newsapp.security;
 
-import com.redmath.newsapp.user.User;
-import com.redmath.newsapp.user.UserRepository;
+import com.redmath.newsapp.profiling.UserLookupEvent;
+import com.redmath.newsapp.user.UserPrincipal;
+import com.redmath.newsapp.user.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +21,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,6 +31,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String token;
+        final Claims claims;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -37,17 +40,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         token = authHeader.substring(7);
-        userEmail = jwtUtils.extractUsername(token);
+        claims = jwtUtils.parseClaims(token);
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmail(userEmail).orElse(null);
+            UserLookupEvent lookup = new UserLookupEvent();
+            lookup.begin();
+            UserPrincipal user = userPrincipalCache.get(userEmail).orElse(null);
+            lookup.found = user != null;
+            lookup.commit();
 
-            if (user != null && jwtUtils.isTokenValid(token, user)) {
+            if (user != null && jwtUtils.isTokenValid(claims, user.email())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 user,
                                 null,
-                                user.getRole().getAuthorities()
+                                user.role().getAuthorities()
                         );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -1,10 +1,13 @@
 package com.redmath.newsapp.security;
 
+import com.redmath.newsapp.profiling.JwtParseEvent;
 import com.redmath.newsapp.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -22,8 +25,22 @@ public class JwtUtils {
     @Value("${app.jwt.expiration-ms}")
     private String jwtExpirationMs;
 
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedClaimsCache claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        claimsCache = new VerifiedClaimsCache(claimsCacheSize);
+    }
+
     private SecretKey getSigningKey(){
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(User user){
@@ -34,13 +51,26 @@ public class JwtUtils {
 
     }
 
+    // verifies the signature only on a cache miss; cached entries expire at the token's own exp
+    public Claims parseClaims(String token) {
+        JwtParseEvent event = new JwtParseEvent();
+        event.begin();
+        Claims claims = claimsCache.get(token);
+        event.cached = claims != null;
+        try {
+            if (claims == null) {
+                claims = jwtParser.parseClaimsJws(token).getBody();
+                claimsCache.put(token, claims);
+            }
+            event.valid = true;
+            return claims;
+        } finally {
+            event.commit();
+        }
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
 //    claims are piece of information stored in tokens
@@ -55,12 +85,16 @@ public class JwtUtils {
     }
 
     public boolean isTokenValid(String token,User user){
-        final String username=extractUsername(token);
-        return (username.equals(user.getEmail())&& !isTokenExpired(token)); //! because if token is expired it gets true,but should return false
+        return isTokenValid(parseClaims(token), user.getEmail());
+    }
+
+    public boolean isTokenValid(Claims claims,String email){
+        final String username=claims.getSubject();
+        return (username.equals(email)&& !isTokenExpired(claims)); //! because if token is expired it gets true,but should return false
     }
 
-    private boolean isTokenExpired(String token){
-        Date expiration = extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims){
+        Date expiration = claims.getExpiration();
         return expiration.before(new Date());
     }
 
@@ -0,0 +1,51 @@
+package com.redmath.newsapp.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets keyed by a string, one AtomicLong each.
+// Instead of a token count the long holds the time at which the bucket is full again: every request pushes
+// it one refill interval further, and a request is turned away when that time would run more than a full
+// bucket ahead of now. Updates are a single compare-and-set, with no locks and no refill timer.
+public class TokenBuckets {
+
+    private final long intervalMs;
+    private final long burstMs;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBuckets(int capacity, int refillPerMinute) {
+        // a bucket that never refills would lock a key out for good, so a rate of 0 is a configuration mistake
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("token bucket needs capacity and refill rate above 0, got "
+                    + capacity + " and " + refillPerMinute + " per minute");
+        }
+        this.intervalMs = Math.max(1, 60_000L / refillPerMinute);
+        this.burstMs = intervalMs * capacity;
+    }
+
+    // 0 when a token was taken, otherwise how long to wait before one is available
+    public long tryAcquire(String key, long nowMs) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nowMs));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowMs) + intervalMs;
+            if (next - nowMs > burstMs) {
+                return next - nowMs - burstMs;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // a refilled bucket is the same as a missing one, so dropping it loses nothing
+    public int evictIdle(long nowMs) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= nowMs);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
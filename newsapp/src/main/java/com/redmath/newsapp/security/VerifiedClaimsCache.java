@@ -0,0 +1,64 @@
+package com.redmath.newsapp.security;
+
+import com.redmath.newsapp.cache.LruCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// Holds claims of tokens whose signature was already checked, so a token is only verified
+// once until it expires. Keys are SHA-256 digests so raw tokens are never kept in memory.
+// Claims are mutable maps, so the cache keeps its own copy and hands every caller a fresh one.
+public class VerifiedClaimsCache {
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+
+    private final int maxEntries;
+    private final LruCache<String, Entry> entries;
+
+    public VerifiedClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LruCache<>(maxEntries);
+    }
+
+    public Claims get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return Jwts.claims(entry.claims());
+    }
+
+    public void put(String token, Claims claims) {
+        if (maxEntries <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(digest(token), new Entry(Jwts.claims(claims), expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.redmath.newsapp.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsJsonCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Pushes newly committed articles to every connected /news/stream reader.
+// Idle connections hold no thread: the servlet request is async and writes happen on virtual threads.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsStreamHub {
+
+    private final NewsJsonCache newsJsonCache;
+    private final Set<NewsStreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${app.stream.queue-size:32}")
+    private int queueSize;
+
+    @Value("${app.stream.overflow:DROP_OLDEST}")
+    private NewsStreamSubscriber.Overflow overflow;
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public SseEmitter subscribe(Long categoryId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new StreamCapacityException();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        NewsStreamSubscriber subscriber = new NewsStreamSubscriber(emitter, categoryId, queueSize, overflow, executor,
+                subscribers::remove);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    public int size() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.type() != NewsChangedEvent.Type.CREATED) {
+            return;
+        }
+        // framed and serialized once; every subscriber writes the same bytes
+        Set<ResponseBodyEmitter.DataWithMediaType> message;
+        try {
+            message = SseEmitter.event().id(String.valueOf(event.newsId())).name("news")
+                    .data(newsJsonCache.json(event.news()), MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            log.warn("article {} not streamed: {}", event.newsId(), e.getMessage());
+            return;
+        }
+        for (NewsStreamSubscriber subscriber : subscribers) {
+            if (subscriber.wants(event.categoryId())) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    // keeps proxies and load balancers from closing quiet connections, and finds dead ones
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (NewsStreamSubscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    // closed before graceful shutdown starts waiting, otherwise open streams hold it up until the timeout
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
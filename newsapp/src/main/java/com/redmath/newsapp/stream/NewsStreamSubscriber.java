@@ -0,0 +1,112 @@
+package com.redmath.newsapp.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// One connected reader. Events wait in a small bounded queue and are written by a drain task on the
+// stream executor, so a slow client only ever holds up its own queue, never the publisher.
+// Events are already built, so one message can be shared by every subscriber.
+// Writes are blocking sends on a virtual thread rather than servlet non-blocking IO: an idle subscriber holds
+// no thread and a stalled one holds one virtual thread. Its memory is capped by the queue (drop the oldest event
+// or disconnect), and a write it never reads fails after server.tomcat.connection-timeout, which closes it.
+public class NewsStreamSubscriber {
+
+    public enum Overflow {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    private final SseEmitter emitter;
+    private final Long categoryId;
+    private final int queueSize;
+    private final Overflow overflow;
+    private final Executor executor;
+    private final Consumer<NewsStreamSubscriber> onClose;
+
+    private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private long dropped;
+
+    public NewsStreamSubscriber(SseEmitter emitter, Long categoryId, int queueSize, Overflow overflow,
+                                Executor executor, Consumer<NewsStreamSubscriber> onClose) {
+        this.emitter = emitter;
+        this.categoryId = categoryId;
+        this.queueSize = queueSize;
+        this.overflow = overflow;
+        this.executor = executor;
+        this.onClose = onClose;
+        this.queue = new ArrayDeque<>(queueSize);
+    }
+
+    public SseEmitter emitter() {
+        return emitter;
+    }
+
+    public boolean wants(Long articleCategoryId) {
+        return categoryId == null || categoryId.equals(articleCategoryId);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    public void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed.get()) {
+            return;
+        }
+        synchronized (this) {
+            if (queue.size() >= queueSize) {
+                if (overflow == Overflow.DISCONNECT) {
+                    queue.clear();
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                queue.pollFirst();
+                dropped++;
+            }
+            queue.addLast(event);
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            onClose.accept(this);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            synchronized (this) {
+                event = queue.pollFirst();
+                if (event == null) {
+                    draining.set(false);
+                    return;
+                }
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // the container has seen the failed write and ends the request itself
+                close();
+                return;
+            }
+        }
+    }
+}
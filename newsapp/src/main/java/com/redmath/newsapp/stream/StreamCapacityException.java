@@ -0,0 +1,11 @@
+package com.redmath.newsapp.stream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StreamCapacityException extends RuntimeException {
+    public StreamCapacityException() {
+        super("Too many live stream subscribers");
+    }
+}
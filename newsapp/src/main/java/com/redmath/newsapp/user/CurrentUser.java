@@ -4,9 +4,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class CurrentUser {
-    public static User get(){
+    public static UserPrincipal get(){
         Authentication auth= SecurityContextHolder.getContext().getAuthentication();
-        if(auth!=null && auth.getPrincipal() instanceof User user){
+        if(auth!=null && auth.getPrincipal() instanceof UserPrincipal user){
             return user;
         }
         return null;
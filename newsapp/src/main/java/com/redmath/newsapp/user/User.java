@@ -10,7 +10,8 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_role", columnList = "role, id"))
+@EntityListeners(UserPrincipalListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
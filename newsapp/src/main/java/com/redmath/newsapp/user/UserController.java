@@ -1,7 +1,9 @@
 package com.redmath.newsapp.user;
 
 
+import com.redmath.newsapp.dto.UserSummaryResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,27 +11,31 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepo;
 
     @GetMapping("/me")
-    public ResponseEntity<User> getLoggedInUser(){
+    public ResponseEntity<UserPrincipal> getLoggedInUser(){
 
-        User currentUser=CurrentUser.get();
+        UserPrincipal currentUser=CurrentUser.get();
         return ResponseEntity.ok(currentUser);
     }
 
     @GetMapping("/editors")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllEditors(@RequestParam(defaultValue = "EDITOR") Role role) {
-        return ResponseEntity.ok(userRepo.findAll()
-                .stream()
-                .filter(user -> user.getRole().equals(role))
-                .toList());
+    public ResponseEntity<List<UserSummaryResponse>> getAllEditors(@RequestParam(defaultValue = "EDITOR") Role role,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(userRepo.findSummariesByRole(role, pageRequest));
     }
 
 
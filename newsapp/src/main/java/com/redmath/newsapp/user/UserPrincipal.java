@@ -0,0 +1,10 @@
+package com.redmath.newsapp.user;
+
+// Immutable view of the logged-in user kept in the SecurityContext instead of the JPA entity,
+// so the password hash never leaves the repository layer.
+public record UserPrincipal(long id, String email, String name, Role role) {
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getName(), user.getRole());
+    }
+}
@@ -0,0 +1,69 @@
+package com.redmath.newsapp.user;
+
+import com.redmath.newsapp.cache.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private record Entry(UserPrincipal principal, long loadedAtMillis) {
+    }
+
+    private final UserRepository userRepository;
+    // bumped by every eviction, so a lookup that read the row before a change does not cache it afterwards
+    private final AtomicLong evictions = new AtomicLong();
+    private LruCache<String, Entry> entries;
+
+    @Value("${app.user-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.user-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @PostConstruct
+    void init() {
+        entries = new LruCache<>(maxSize);
+    }
+
+    public Optional<UserPrincipal> get(String email) {
+        Entry entry = entries.get(email);
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.loadedAtMillis() < ttlMs) {
+            return Optional.of(entry.principal());
+        }
+
+        long seen = evictions.get();
+        Optional<UserPrincipal> principal = userRepository.findByEmail(email).map(UserPrincipal::from);
+        if (principal.isPresent()) {
+            Entry loaded = new Entry(principal.get(), now);
+            entries.put(email, loaded);
+            if (evictions.get() != seen) {
+                entries.remove(email, loaded);
+            }
+        } else {
+            entries.remove(email);
+        }
+        return principal;
+    }
+
+    public void evict(long userId) {
+        evictions.incrementAndGet();
+        entries.removeIf((email, entry) -> entry.principal().id() == userId);
+    }
+
+    public void evict(String email) {
+        evictions.incrementAndGet();
+        entries.remove(email);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.redmath.newsapp.user;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Drops the cached principal whenever a user's row changes, e.g. a new role or name.
+// These callbacks run at flush, before the change is committed, so the eviction waits for the commit:
+// evicting earlier would let a concurrent lookup cache the old row again.
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalListener {
+
+    private final ObjectProvider<UserPrincipalCache> userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        long id = user.getId();
+        String email = user.getEmail();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        } else {
+            evict(id, email);
+        }
+    }
+
+    private void evict(long id, String email) {
+        userPrincipalCache.ifAvailable(cache -> {
+            cache.evict(id);
+            cache.evict(email);
+        });
+    }
+}
@@ -1,8 +1,13 @@
 package com.redmath.newsapp.user;
 
+import com.redmath.newsapp.dto.UserSummaryResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,9 @@ public interface UserRepository extends JpaRepository<User,Long> {
 
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // served by idx_users_role, which holds (role, id), so a page never touches other roles
+    @Query("select new com.redmath.newsapp.dto.UserSummaryResponse(u.id, u.name, u.email) " +
+            "from User u where u.role = :role order by u.id")
+    List<UserSummaryResponse> findSummariesByRole(@Param("role") Role role, Pageable pageable);
 }
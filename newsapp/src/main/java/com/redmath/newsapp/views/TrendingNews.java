@@ -0,0 +1,89 @@
+package com.redmath.newsapp.views;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Exponentially decayed view scores for recently viewed articles. On every flush all scores shrink by
+// exp(-interval / half-life * ln 2) before the new views are added. Only the best candidates are kept,
+// and the top articles are materialised once per flush so GET /news/trending never queries the database.
+@Component
+@RequiredArgsConstructor
+public class TrendingNews {
+
+    private final NewsRepository newsRepository;
+
+    @Value("${app.views.half-life-ms:3600000}")
+    private long halfLifeMs;
+
+    @Value("${app.views.candidates:1000}")
+    private int candidates;
+
+    @Value("${app.views.trending-size:20}")
+    private int trendingSize;
+
+    private final Map<Long, Double> scores = new HashMap<>();
+    private long lastDecay = System.currentTimeMillis();
+    private volatile List<NewsResponse> trending = List.of();
+
+    public List<NewsResponse> top(int limit) {
+        List<NewsResponse> current = trending;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    private void decay() {
+        long now = System.currentTimeMillis();
+        double factor = Math.pow(0.5, (double) (now - lastDecay) / halfLifeMs);
+        lastDecay = now;
+        scores.replaceAll((id, score) -> score * factor);
+        scores.values().removeIf(score -> score < 0.01);
+    }
+
+    synchronized void update(List<Object[]> deltas) {
+        decay();
+        for (Object[] delta : deltas) {
+            scores.merge((Long) delta[1], ((Long) delta[0]).doubleValue(), Double::sum);
+        }
+        if (scores.size() > candidates) {
+            List<Long> weakest = scores.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(scores.size() - candidates)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            weakest.forEach(scores::remove);
+        }
+        refresh();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onNewsChanged(NewsChangedEvent event) {
+        if (event.type() == NewsChangedEvent.Type.DELETED && scores.remove(event.newsId()) != null) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        List<Long> topIds = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(trendingSize)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (topIds.isEmpty()) {
+            trending = List.of();
+            return;
+        }
+        Map<Long, NewsResponse> byId = newsRepository.findResponsesByIds(topIds).stream()
+                .collect(Collectors.toMap(NewsResponse::getId, Function.identity()));
+        trending = topIds.stream().map(byId::get).filter(news -> news != null).toList();
+    }
+}
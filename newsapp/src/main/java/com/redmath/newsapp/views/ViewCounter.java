@@ -0,0 +1,68 @@
+package com.redmath.newsapp.views;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts article views in memory and writes the accumulated deltas with one batched UPDATE per interval.
+// Recording a view is a map lookup and a striped LongAdder increment, so readers never wait on the database.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrendingNews trendingNews;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // counters dropped at the last flush because they were idle; a record() that looked one up just before
+    // it was dropped still increments it, so those views are collected one flush later
+    private List<Map.Entry<Long, LongAdder>> retired = List.of();
+
+    public void record(long newsId) {
+        pending.computeIfAbsent(newsId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            long views = entry.getValue().sum();
+            if (views > 0) {
+                deltas.add(new Object[]{views, entry.getKey()});
+            }
+        }
+        List<Map.Entry<Long, LongAdder>> idle = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sum();
+            if (views > 0) {
+                // subtracting what we read keeps increments that race with the flush
+                entry.getValue().add(-views);
+                deltas.add(new Object[]{views, entry.getKey()});
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                idle.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        retired = idle;
+
+        if (!deltas.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate("update news set view_count = view_count + ? where id = ?", deltas);
+            } catch (RuntimeException e) {
+                log.warn("could not flush {} view counts, retrying next interval: {}", deltas.size(), e.getMessage());
+                deltas.forEach(delta -> pending.computeIfAbsent((Long) delta[1], id -> new LongAdder()).add((Long) delta[0]));
+                return;
+            }
+        }
+        // scores decay even without new views, and articles that fall out of trending must leave the list
+        trendingNews.update(deltas);
+    }
+}
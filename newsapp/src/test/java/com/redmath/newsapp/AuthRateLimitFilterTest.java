@@ -0,0 +1,134 @@
+package com.redmath.newsapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.security.AuthRateLimitFilter;
+import com.redmath.newsapp.security.TokenBuckets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthRateLimitFilterTest {
+
+    @Test
+    void bucketAllowsBurstThenRefillsAtRate() {
+        // 3 tokens, one every 20 seconds
+        TokenBuckets buckets = new TokenBuckets(3, 3);
+        long now = 1_000_000;
+
+        assertEquals(0, buckets.tryAcquire("k", now));
+        assertEquals(0, buckets.tryAcquire("k", now));
+        assertEquals(0, buckets.tryAcquire("k", now));
+        assertEquals(20_000, buckets.tryAcquire("k", now));
+
+        assertEquals(0, buckets.tryAcquire("k", now + 20_000));
+        assertTrue(buckets.tryAcquire("k", now + 20_000) > 0);
+        assertEquals(0, buckets.tryAcquire("other", now));
+    }
+
+    @Test
+    void refilledBucketsAreEvicted() {
+        TokenBuckets buckets = new TokenBuckets(3, 3);
+        buckets.tryAcquire("busy", 0);
+        buckets.tryAcquire("busy", 0);
+        buckets.tryAcquire("idle", 0);
+
+        assertEquals(1, buckets.evictIdle(20_000));
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void zeroRateOrCapacityIsRejectedUpFront() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(3, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(0, 3));
+    }
+
+    private MockHttpServletResponse login(AuthRateLimitFilter filter, String ip, String email, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"pw\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void sameEmailFromManyAddressesIsLimited() throws Exception {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(new ObjectMapper(), 100, 100, 2, 1, new SimpleMeterRegistry());
+
+        MockFilterChain chain = new MockFilterChain();
+        assertEquals(200, login(filter, "10.0.0.1", "Ed@x.com", chain).getStatus());
+        // the controller still gets the whole body
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("\"password\":\"pw\""));
+
+        assertEquals(200, login(filter, "10.0.0.2", "ed@x.com", new MockFilterChain()).getStatus());
+        MockHttpServletResponse limited = login(filter, "10.0.0.3", "ed@x.com ", new MockFilterChain());
+        assertEquals(429, limited.getStatus());
+        assertEquals("60", limited.getHeader("Retry-After"));
+
+        assertEquals(200, login(filter, "10.0.0.3", "other@x.com", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void oneAddressIsLimitedAcrossEmails() throws Exception {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(new ObjectMapper(), 2, 2, 100, 100, new SimpleMeterRegistry());
+
+        assertEquals(200, login(filter, "10.0.0.1", "a@x.com", new MockFilterChain()).getStatus());
+        assertEquals(200, login(filter, "10.0.0.1", "b@x.com", new MockFilterChain()).getStatus());
+        assertEquals(429, login(filter, "10.0.0.1", "c@x.com", new MockFilterChain()).getStatus());
+        assertEquals(200, login(filter, "10.0.0.9", "c@x.com", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void bodyIsReplayedToAsyncReaders() throws Exception {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(new ObjectMapper(), 100, 100, 100, 100, new SimpleMeterRegistry());
+        MockFilterChain chain = new MockFilterChain();
+        login(filter, "10.0.0.1", "ed@x.com", chain);
+
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertTrue(allRead[0]);
+        assertTrue(input.isFinished());
+        assertEquals("{\"email\":\"ed@x.com\",\"password\":\"pw\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oversizedBodyIsRefused() throws Exception {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(new ObjectMapper(), 100, 100, 100, 100, new SimpleMeterRegistry());
+        MockHttpServletResponse response = login(filter, "10.0.0.1", "x".repeat(5000) + "@x.com", new MockFilterChain());
+
+        assertEquals(413, response.getStatus());
+    }
+}
@@ -0,0 +1,113 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.ingest.FeedImporter;
+import com.redmath.newsapp.news.MarkdownRenderer;
+import com.redmath.newsapp.news.News;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"app.import.chunk-size=2", "app.import.editor-email=wire@example.com",
+        "app.import.default-category=World"})
+@Import({FeedImporter.class, NewsBodyCodec.class, MarkdownRenderer.class})
+public class FeedImporterTest {
+
+    @Autowired
+    private FeedImporter feedImporter;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository.save(Category.builder().name("World").build());
+        categoryRepository.save(Category.builder().name("Business").build());
+        userRepository.save(User.builder().name("Wire").email("wire@example.com").password("hash").role(Role.EDITOR).build());
+    }
+
+    private static String item(String guid, String category) {
+        return "<item><guid>" + guid + "</guid><title>Story " + guid + "</title>"
+                + (category != null ? "<category>" + category + "</category>" : "")
+                + "<description>Body of " + guid + "</description></item>";
+    }
+
+    private Path feed(String name, String... items) throws Exception {
+        return Files.writeString(dir.resolve(name), "<rss><channel>" + String.join("", items) + "</channel></rss>");
+    }
+
+    private List<News> imported() {
+        return newsRepository.findAll().stream().sorted(Comparator.comparing(News::getId)).toList();
+    }
+
+    @Test
+    void itemsAreInsertedOnceWithTheirCategory() throws Exception {
+        Path file = feed("wire.xml", item("a", "business"), item("b", null), item("a", "World"), item("c", "Sports"));
+
+        FeedImporter.Result result = feedImporter.importFile(file);
+
+        assertEquals(new FeedImporter.Result(4, 3, 1, 0, result.millis()), result);
+        List<News> news = imported();
+        assertEquals(List.of("a", "b", "c"), news.stream().map(News::getGuid).toList());
+        assertEquals(List.of("Business", "World", "World"), news.stream().map(n -> n.getCategory().getName()).toList());
+        assertEquals("Body of a", news.get(0).getExcerpt());
+        assertNotNull(news.get(0).getSimhash());
+        // ids come from the same sequence Hibernate uses
+        News posted = newsRepository.save(News.builder().title("Posted").category(news.get(0).getCategory())
+                .postedBy(news.get(0).getPostedBy()).build());
+        assertTrue(posted.getId() > news.get(2).getId());
+
+        // a second file repeating an item only adds the new one, and a finished file is not read again
+        assertEquals(1, feedImporter.importFile(feed("more.xml", item("b", null), item("d", null))).imported());
+        assertEquals(0, feedImporter.importFile(file).itemsRead());
+        assertEquals(Arrays.asList("a", "b", "c", null, "d"), imported().stream().map(News::getGuid).toList());
+    }
+
+    @Test
+    void rerunResumesAfterTheLastCommittedChunk() throws Exception {
+        // the third item is cut off, as by a transfer that died
+        Path file = dir.resolve("partial.xml");
+        Files.writeString(file, "<rss><channel>" + item("a", null) + item("b", null) + "<item><guid>c</guid><title>Sto");
+
+        assertThrows(Exception.class, () -> feedImporter.importFile(file));
+        assertEquals(2, imported().size());
+        assertEquals(2L, jdbcTemplate.queryForObject("select items_read from news_import", Long.class));
+
+        Files.writeString(file, "<rss><channel>" + item("a", null) + item("b", null) + item("c", null) + "</channel></rss>");
+        FeedImporter.Result result = feedImporter.importFile(file);
+
+        assertEquals(1, result.itemsRead());
+        assertEquals(1, result.imported());
+        assertEquals(List.of("a", "b", "c"), imported().stream().map(News::getGuid).toList());
+    }
+}
@@ -0,0 +1,116 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.ingest.FeedItem;
+import com.redmath.newsapp.ingest.FeedReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedReaderTest {
+
+    private static final String RSS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0" xmlns:content="http://purl.org/rss/1.0/modules/content/">
+              <channel>
+                <title>Wire</title>
+                <item>
+                  <title>Rail network &amp; buses expand</title>
+                  <guid isPermaLink="false">wire-1</guid>
+                  <category>World</category>
+                  <pubDate>Tue, 10 Jun 2025 04:00:00 GMT</pubDate>
+                  <description>&lt;p&gt;Short form&lt;/p&gt;</description>
+                  <content:encoded><![CDATA[<p>First *paragraph*.</p><p># Second&nbsp;one &#8212; done</p>]]></content:encoded>
+                </item>
+                <item>
+                  <title>No guid here</title>
+                  <link>https://wire.example/2</link>
+                  <description>Plain text body</description>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    private static final String ATOM = """
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>Wire</title>
+              <entry>
+                <id>urn:wire:3</id>
+                <title type="html">Markets &lt;b&gt;rally&lt;/b&gt;</title>
+                <link rel="alternate" href="https://wire.example/3"/>
+                <category term="Business"/>
+                <updated>2025-06-11T09:30:00+02:00</updated>
+                <content type="xhtml"><div xmlns="http://www.w3.org/1999/xhtml"><p>Stocks rose.</p><p>Bonds fell.</p></div></content>
+              </entry>
+            </feed>
+            """;
+
+    private static FeedReader reader(String xml) throws Exception {
+        return new FeedReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static LocalDateTime local(String iso) {
+        return ZonedDateTime.parse(iso).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    @Test
+    void rssItemsBecomeMarkdownWithGuidCategoryAndDate() throws Exception {
+        try (FeedReader reader = reader(RSS)) {
+            FeedItem first = reader.next();
+            assertEquals("wire-1", first.guid());
+            assertEquals("Rail network & buses expand", first.title());
+            assertEquals("World", first.category());
+            assertEquals(local("2025-06-10T04:00:00Z"), first.publishedAt());
+            // full content wins over the description, Markdown characters are escaped
+            assertEquals("First \\*paragraph\\*.\n\n\\# Second one — done", first.content());
+
+            FeedItem second = reader.next();
+            assertEquals("https://wire.example/2", second.guid());
+            assertEquals("Plain text body", second.content());
+            assertNull(second.category());
+            assertNull(second.publishedAt());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void atomEntriesAreReadToo() throws Exception {
+        try (FeedReader reader = reader(ATOM)) {
+            FeedItem entry = reader.next();
+            assertEquals("urn:wire:3", entry.guid());
+            assertEquals("Markets rally", entry.title());
+            assertEquals("Business", entry.category());
+            assertEquals(local("2025-06-11T07:30:00Z"), entry.publishedAt());
+            assertEquals("Stocks rose.\n\nBonds fell.", entry.content());
+        }
+    }
+
+    @Test
+    void skipMovesPastWholeItems() throws Exception {
+        try (FeedReader reader = reader(RSS)) {
+            assertEquals(1, reader.skip(1));
+            assertEquals("No guid here", reader.next().title());
+            assertEquals(0, reader.skip(5));
+        }
+    }
+
+    @Test
+    void externalEntitiesAreNotResolved() {
+        String xxe = """
+                <?xml version="1.0"?>
+                <!DOCTYPE rss [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <rss><channel><item><guid>x</guid><title>&secret;</title></item></channel></rss>
+                """;
+        assertThrows(Exception.class, () -> {
+            try (FeedReader reader = reader(xxe)) {
+                reader.next();
+            }
+        });
+    }
+}
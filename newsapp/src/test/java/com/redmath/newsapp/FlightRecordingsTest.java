@@ -0,0 +1,91 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.RecordingResponse;
+import com.redmath.newsapp.profiling.FlightRecordings;
+import com.redmath.newsapp.security.JwtUtils;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingsTest {
+
+    @TempDir
+    private Path dir;
+
+    private FlightRecordings flightRecordings;
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        flightRecordings = new FlightRecordings();
+        ReflectionTestUtils.setField(flightRecordings, "directory", dir);
+        ReflectionTestUtils.setField(flightRecordings, "maxAgeMs", 60000L);
+        ReflectionTestUtils.setField(flightRecordings, "maxSizeBytes", 16L << 20);
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "YourSecretKeyHere12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", "60000");
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", 10);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!"STOPPED".equals(flightRecordings.status().getState())) {
+            flightRecordings.stop();
+        }
+    }
+
+    @Test
+    void recordingHoldsTheJwtEvents() throws Exception {
+        RecordingResponse started = flightRecordings.start("default", Map.of());
+        assertEquals("RUNNING", started.getState());
+
+        String token = jwtUtils.generateToken(User.builder().email("editor@example.com").role(Role.EDITOR).build());
+        jwtUtils.parseClaims(token);
+        jwtUtils.parseClaims(token);
+        assertThrows(RuntimeException.class, () -> jwtUtils.parseClaims(token + "x"));
+
+        RecordingResponse stopped = flightRecordings.stop();
+        assertEquals("STOPPED", flightRecordings.status().getState());
+        assertTrue(stopped.getFileSize() > 0);
+
+        List<RecordedEvent> parses = RecordingFile.readAllEvents(flightRecordings.file(stopped.getFile())).stream()
+                .filter(event -> event.getEventType().getName().equals("com.redmath.newsapp.JwtParse"))
+                .toList();
+        assertEquals(3, parses.size());
+        assertEquals(List.of(false, true, false), parses.stream().map(event -> event.getBoolean("cached")).toList());
+        assertEquals(List.of(true, true, false), parses.stream().map(event -> event.getBoolean("valid")).toList());
+    }
+
+    @Test
+    void dumpKeepsTheRecordingRunning() {
+        flightRecordings.start("profile", Map.of("com.redmath.newsapp.RepositoryCall#threshold", "0 ms"));
+
+        RecordingResponse dumped = flightRecordings.dump();
+
+        assertEquals("RUNNING", dumped.getState());
+        assertTrue(dumped.getFile().endsWith("-dump-1.jfr"));
+        assertThrows(RuntimeException.class, () -> flightRecordings.start("default", Map.of()));
+    }
+
+    @Test
+    void onlyRecordingFilesCanBeFetched() {
+        assertThrows(RuntimeException.class, () -> flightRecordings.start("no-such-settings", Map.of()));
+        assertThrows(RuntimeException.class, () -> flightRecordings.stop());
+        assertThrows(RuntimeException.class, () -> flightRecordings.file("../../etc/passwd"));
+        assertThrows(RuntimeException.class, () -> flightRecordings.file("newsapp-20250101-120000.jfr"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.security.JwtUtils;
+import com.redmath.newsapp.security.VerifiedClaimsCache;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "YourSecretKeyHere12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", "60000");
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", 10);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        user = User.builder().id(1L).email("editor@example.com").name("Editor").role(Role.EDITOR).build();
+    }
+
+    @Test
+    void parseClaimsReturnsCachedClaimsForSameToken() {
+        String token = jwtUtils.generateToken(user);
+
+        Claims first = jwtUtils.parseClaims(token);
+        first.setSubject("intruder@example.com");
+        Claims second = jwtUtils.parseClaims(token);
+
+        // served from the cache, but a caller changing its copy does not change what others get
+        assertNotSame(first, second);
+        assertEquals("editor@example.com", second.getSubject());
+        assertEquals("editor@example.com", jwtUtils.extractUsername(token));
+        assertTrue(jwtUtils.isTokenValid(second, user.getEmail()));
+    }
+
+    @Test
+    void tokenOfAnotherUserIsNotValid() {
+        String token = jwtUtils.generateToken(user);
+        User other = User.builder().id(2L).email("other@example.com").role(Role.USER).build();
+
+        assertFalse(jwtUtils.isTokenValid(token, other));
+    }
+
+    @Test
+    void cacheDropsExpiredEntries() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10);
+        Claims expired = Jwts.claims().setSubject("a@example.com").setExpiration(new Date(System.currentTimeMillis() - 1000));
+        Claims live = Jwts.claims().setSubject("b@example.com").setExpiration(new Date(System.currentTimeMillis() + 60000));
+
+        cache.put("expired-token", expired);
+        cache.put("live-token", live);
+
+        assertNull(cache.get("expired-token"));
+        assertEquals(live, cache.get("live-token"));
+    }
+
+    @Test
+    void cacheStaysWithinCapacity() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(3);
+        for (int i = 0; i < 10; i++) {
+            Claims claims = Jwts.claims().setSubject("user" + i).setExpiration(new Date(System.currentTimeMillis() + 60000));
+            cache.put("token-" + i, claims);
+        }
+
+        assertTrue(cache.size() <= 3);
+        assertNotNull(cache.get("token-9"));
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedToken() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(2);
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        cache.put("token-a", Jwts.claims().setSubject("a").setExpiration(expiration));
+        cache.put("token-b", Jwts.claims().setSubject("b").setExpiration(expiration));
+
+        cache.get("token-a");
+        cache.put("token-c", Jwts.claims().setSubject("c").setExpiration(expiration));
+
+        assertNotNull(cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertNotNull(cache.get("token-c"));
+    }
+}
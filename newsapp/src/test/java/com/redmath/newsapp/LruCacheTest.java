@@ -0,0 +1,55 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.cache.LruCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedAndReported() {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, Integer> cache = new LruCache<>(3, (key, value) -> evicted.add(key));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.get("a");
+        cache.put("d", 4);
+        cache.put("e", 5);
+
+        assertEquals(List.of("b", "c"), evicted);
+        assertEquals(List.of("a", "d", "e"), cache.keys());
+    }
+
+    @Test
+    void removedEntriesAreNotReportedAsEvicted() {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, Integer> cache = new LruCache<>(2, (key, value) -> evicted.add(key));
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.remove("a");
+        cache.removeIf((key, value) -> value == 2);
+
+        assertTrue(evicted.isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void segmentedCacheStaysWithinItsCapacity() {
+        LruCache<Integer, Integer> cache = new LruCache<>(10_000);
+        for (int i = 0; i < 50_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 10_000);
+        assertTrue(cache.size() > 9_000);
+        assertEquals(49_999, cache.get(49_999));
+        assertNull(cache.get(0));
+    }
+}
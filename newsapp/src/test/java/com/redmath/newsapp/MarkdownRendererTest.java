@@ -0,0 +1,36 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.news.MarkdownRenderer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkdownRendererTest {
+
+    private final MarkdownRenderer renderer = new MarkdownRenderer();
+
+    @Test
+    void rendersMarkdownAndPlainTextFromOneParse() {
+        MarkdownRenderer.Rendered rendered = renderer.render("# Markets\n\nStocks **rallied** today.");
+
+        assertEquals("<h1>Markets</h1>\n<p>Stocks <strong>rallied</strong> today.</p>\n", rendered.html());
+        assertEquals("Markets\nStocks rallied today.", rendered.text());
+    }
+
+    @Test
+    void rawHtmlIsEscaped() {
+        String html = renderer.html("Hello <script>alert(1)</script>\n\n<img src=x onerror=alert(1)>");
+
+        assertFalse(html.contains("<script"));
+        assertFalse(html.contains("<img"));
+        assertTrue(html.contains("&lt;script&gt;"));
+    }
+
+    @Test
+    void unsafeLinksLoseTheirUrlAndSafeOnesAreNofollow() {
+        String html = renderer.html("[bad](javascript:alert(1)) and [good](https://example.com)");
+
+        assertFalse(html.contains("javascript:"));
+        assertTrue(html.contains("<a rel=\"nofollow noopener\" href=\"https://example.com\">good</a>"));
+    }
+}
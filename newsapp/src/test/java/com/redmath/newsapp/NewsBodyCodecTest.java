@@ -0,0 +1,50 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.news.NewsBody;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NewsBodyCodecTest {
+
+    private NewsBodyCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new NewsBodyCodec();
+        ReflectionTestUtils.setField(codec, "compressThreshold", 64);
+        ReflectionTestUtils.setField(codec, "excerptLength", 20);
+    }
+
+    @Test
+    void shortBodyIsStoredAsIs() {
+        NewsBody body = new NewsBody();
+
+        codec.write(body, "Short body");
+
+        assertFalse(body.isCompressed());
+        assertEquals("Short body", codec.read(body));
+    }
+
+    @Test
+    void largeBodyRoundTripsThroughDeflate() {
+        String content = "Städte und Märkte – ünïcode text. ".repeat(100);
+        NewsBody body = new NewsBody();
+
+        codec.write(body, content);
+
+        assertTrue(body.isCompressed());
+        assertTrue(body.getData().length < content.length());
+        assertEquals(content, codec.read(body));
+    }
+
+    @Test
+    void excerptCutsAtWordBoundary() {
+        assertEquals("Short", codec.excerpt("  Short  "));
+        assertEquals("The quick brown fox…", codec.excerpt("The quick brown fox jumps over the lazy dog"));
+        assertNull(codec.excerpt(null));
+    }
+}
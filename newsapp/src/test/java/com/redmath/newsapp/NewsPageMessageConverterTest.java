@@ -0,0 +1,72 @@
+package com.redmath.newsapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsJsonCache;
+import com.redmath.newsapp.news.NewsPageMessageConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NewsPageMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private NewsJsonCache newsJsonCache;
+    private NewsPageMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        newsJsonCache = new NewsJsonCache(objectMapper, 100);
+        converter = new NewsPageMessageConverter(newsJsonCache, objectMapper);
+    }
+
+    private NewsResponse article(long id, String title, String updatedAt) {
+        return NewsResponse.builder().id(id).title(title).excerpt("Body \"quoted\" é").categoryName("World")
+                .editorName("Ed").createdAt("2025-01-01T10:00").updatedAt(updatedAt).build();
+    }
+
+    private String write(NewsPageResponse page) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(page, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writesTheSameJsonAsJackson() throws Exception {
+        NewsPageResponse page = NewsPageResponse.builder()
+                .news(List.of(article(2, "Second", "2025-01-01T11:00"), article(1, "First", "2025-01-01T10:00")))
+                .nextCursor("abc").build();
+        NewsPageResponse empty = NewsPageResponse.builder().news(List.of()).build();
+
+        assertEquals(objectMapper.writeValueAsString(page), write(page));
+        assertEquals(objectMapper.writeValueAsString(empty), write(empty));
+    }
+
+    @Test
+    void fragmentIsReusedUntilArticleChanges() throws Exception {
+        byte[] first = newsJsonCache.json(article(1, "First", "2025-01-01T10:00"));
+        byte[] again = newsJsonCache.json(article(1, "First", "2025-01-01T10:00"));
+        byte[] edited = newsJsonCache.json(article(1, "Edited", "2025-01-01T12:00"));
+
+        assertSame(first, again);
+        assertNotSame(first, edited);
+        assertTrue(new String(edited, StandardCharsets.UTF_8).contains("Edited"));
+    }
+
+    @Test
+    void deleteEvictsFragment() throws Exception {
+        newsJsonCache.json(article(1, "First", "2025-01-01T10:00"));
+
+        newsJsonCache.onNewsChanged(NewsChangedEvent.deleted(1, 1));
+
+        assertEquals(0, newsJsonCache.size());
+    }
+}
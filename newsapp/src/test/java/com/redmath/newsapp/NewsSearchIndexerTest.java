@@ -0,0 +1,55 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsText;
+import com.redmath.newsapp.search.NewsSearchIndexer;
+import com.redmath.newsapp.search.SearchDocument;
+import com.redmath.newsapp.search.SearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsSearchIndexerTest {
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    private NewsText text(long id, String title) {
+        return new NewsText(id, title, "Body".getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    @Test
+    void rebuildKeepsServingAndReplaysChangesCommittedMeanwhile() {
+        SearchIndex searchIndex = new SearchIndex(3.0f, 1.2f, 0.75f);
+        searchIndex.index(new SearchDocument(1, "Election results", "Body"));
+        NewsSearchIndexer indexer = new NewsSearchIndexer(searchIndex, newsRepository, new NewsBodyCodec(1024, 200));
+        ReflectionTestUtils.setField(indexer, "batchSize", 10);
+        // the archive is read from a snapshot taken before article 2 was deleted and article 1 was edited
+        when(newsRepository.findTexts(eq(0L), any())).thenAnswer(invocation -> {
+            assertEquals(List.of(1L), searchIndex.search("election", 0, 10).ids());
+            indexer.onNewsChanged(NewsChangedEvent.deleted(2L, 1L));
+            indexer.onNewsChanged(NewsChangedEvent.updated(1L,
+                    NewsResponse.builder().id(1L).title("Weather report").build(), "Body"));
+            return List.of(text(1, "Election results"), text(2, "Election turnout"));
+        });
+
+        indexer.rebuild();
+
+        assertEquals(List.of(), searchIndex.search("election", 0, 10).ids());
+        assertEquals(List.of(1L), searchIndex.search("weather", 0, 10).ids());
+        assertEquals(1, searchIndex.size());
+    }
+}
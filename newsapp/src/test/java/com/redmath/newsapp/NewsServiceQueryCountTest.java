@@ -0,0 +1,290 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsDetailResponse;
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsRequest;
+import com.redmath.newsapp.dto.NewsSearchResponse;
+import com.redmath.newsapp.duplicate.SimHash;
+import com.redmath.newsapp.duplicate.SimHashIndex;
+import com.redmath.newsapp.news.MarkdownRenderer;
+import com.redmath.newsapp.news.News;
+import com.redmath.newsapp.news.NewsBody;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsService;
+import com.redmath.newsapp.search.SearchDocument;
+import com.redmath.newsapp.search.SearchIndex;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserPrincipal;
+import com.redmath.newsapp.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NewsServiceSliceTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class NewsServiceQueryCountTest {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private SimHashIndex simHashIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private final List<Category> categories = new ArrayList<>();
+    private final List<User> editors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 5; i++) {
+            categories.add(categoryRepository.save(Category.builder().name("Category " + i).build()));
+            editors.add(userRepository.save(User.builder().name("Editor " + i).email("editor" + i + "@example.com")
+                    .password("hash").role(Role.EDITOR).build()));
+        }
+        User editor = editors.get(0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                UserPrincipal.from(editor), null, editor.getRole().getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listEndpointsRunOneStatementRegardlessOfArticleCount() {
+        seed(1);
+        List<Long> small = countAll();
+
+        seed(40);
+        List<Long> large = countAll();
+
+        assertEquals(List.of(1L, 1L, 1L, 1L, 1L), small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void listEndpointsReturnNewestFirst() {
+        seed(3);
+
+        List<String> createdAt = newsService.getAllNews(null, 20).getNews().stream().map(n -> n.getCreatedAt()).toList();
+
+        assertEquals(3, createdAt.size());
+        assertTrue(createdAt.get(0).compareTo(createdAt.get(2)) > 0);
+        assertEquals("Editor 0", newsService.getMyNews().get(0).getEditorName());
+    }
+
+    @Test
+    void cursorWalksFeedWithoutGapsOrDuplicates() {
+        seed(5);
+        LocalDateTime tie = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            newsRepository.save(News.builder().title("Tie " + i).excerpt("Same instant").category(categories.get(0))
+                    .postedBy(editors.get(0)).createdAt(tie).updatedAt(tie).build());
+        }
+        entityManager.flush();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NewsPageResponse page = newsService.getAllNews(cursor, 3);
+            page.getNews().forEach(n -> seen.add(n.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(8, seen.size());
+        assertEquals(8, seen.stream().distinct().count());
+
+        // category 0 and editor 0 hold the first seeded article and the three ties
+        Long category = categories.get(0).getId();
+        assertEquals(4, walk(before -> newsService.getNewsByCategory(category, before, 1)).stream().distinct().count());
+        Long editor = editors.get(0).getId();
+        assertEquals(4, walk(before -> newsService.getNewsByEditor(editor, before, 1)).stream().distinct().count());
+    }
+
+    private List<Long> walk(Function<String, NewsPageResponse> pages) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            NewsPageResponse page = pages.apply(cursor);
+            page.getNews().forEach(n -> seen.add(n.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    @Test
+    void limitIsCappedAtMaxPageSize() {
+        seed(NewsService.MAX_PAGE_SIZE + 5);
+
+        NewsPageResponse page = newsService.getAllNews(null, 10_000);
+
+        assertEquals(NewsService.MAX_PAGE_SIZE, page.getNews().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void searchPageFarPastTheEndIsEmpty() {
+        seed(3);
+
+        NewsSearchResponse page = newsService.searchNews("story", Integer.MAX_VALUE, 100);
+
+        assertTrue(page.getTotal() >= 3);
+        assertTrue(page.getNews().isEmpty());
+    }
+
+    @Test
+    void detailReadsAndInflatesTheStoredBody() {
+        String content = "Long article paragraph. ".repeat(200);
+        NewsRequest request = NewsRequest.builder()
+                .title("Long read").content(content).categoryId(categories.get(0).getId()).build();
+
+        long id = newsService.create(request).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        NewsBody stored = entityManager.find(NewsBody.class, id);
+        assertTrue(stored.isCompressed());
+        assertTrue(stored.getData().length < content.length() / 10);
+        assertEquals(content, newsService.getNews(id).getContent());
+        assertTrue(newsService.getAllNews(null, 20).getNews().get(0).getExcerpt().length() <= 201);
+    }
+
+    @Test
+    void nearDuplicateIsFlaggedWithTheArticleItRepeats() {
+        StringBuilder story = new StringBuilder();
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            story.append("word").append(random.nextInt(1000)).append(' ');
+        }
+        NewsRequest original = NewsRequest.builder()
+                .title("Wire story").content(story.toString()).categoryId(categories.get(0).getId()).build();
+        long id = newsService.create(original).getId();
+        entityManager.flush();
+        // what SimHashIndexer does once loaded and after the commit
+        simHashIndex.markReady();
+        simHashIndex.add(id, newsRepository.findById(id).orElseThrow().getSimhash());
+
+        NewsRequest repost = NewsRequest.builder()
+                .title("Wire story (updated)").content(story + "Additional reporting.").categoryId(categories.get(0).getId()).build();
+        NewsRequest other = NewsRequest.builder()
+                .title("Other").content(story.reverse().toString()).categoryId(categories.get(0).getId()).build();
+
+        NewsDetailResponse flagged = newsService.create(repost);
+        assertEquals(id, flagged.getDuplicateOf());
+        assertNull(newsService.create(other).getDuplicateOf());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(id, newsRepository.findById(flagged.getId()).orElseThrow().getDuplicateOf());
+    }
+
+    @Test
+    void differentShortBodiesAreNotFlagged() {
+        NewsRequest stub = NewsRequest.builder()
+                .title("Live: storm updates").content("...").categoryId(categories.get(0).getId()).build();
+        NewsRequest other = NewsRequest.builder()
+                .title("Photo of the day").content("***").categoryId(categories.get(0).getId()).build();
+        // neither has a term, so both hash to 0
+        assertEquals(SimHash.of(stub.getContent()), SimHash.of(other.getContent()));
+
+        long id = newsService.create(stub).getId();
+        entityManager.flush();
+        simHashIndex.markReady();
+        simHashIndex.add(id, newsRepository.findById(id).orElseThrow().getSimhash());
+
+        assertNull(newsService.create(other).getDuplicateOf());
+    }
+
+    @Test
+    void markdownIsRenderedOnceOnWriteAndStaleBodiesOnRead() {
+        NewsRequest request = NewsRequest.builder()
+                .title("Markdown").content("Stocks **rallied** <b>today</b>.").categoryId(categories.get(0).getId()).build();
+
+        long id = newsService.create(request).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        NewsBody stored = entityManager.find(NewsBody.class, id);
+        assertEquals(MarkdownRenderer.VERSION, stored.getRenderVersion());
+        String html = "<p>Stocks <strong>rallied</strong> &lt;b&gt;today&lt;/b&gt;.</p>\n";
+        assertEquals(html, newsService.getNews(id).getHtml());
+        assertEquals("Stocks rallied <b>today</b>.", newsService.getAllNews(null, 20).getNews().get(0).getExcerpt());
+
+        // as left by a migration or an older renderer
+        stored = entityManager.find(NewsBody.class, id);
+        stored.setHtml(null);
+        stored.setRenderVersion(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(html, newsService.getNews(id).getHtml());
+    }
+
+    private List<Long> countAll() {
+        return List.of(
+                count(() -> newsService.getAllNews(null, 20).getNews()),
+                count(() -> newsService.getNewsByCategory(categories.get(0).getId(), null, 20).getNews()),
+                count(() -> newsService.getNewsByEditor(editors.get(0).getId(), null, 20).getNews()),
+                count(() -> newsService.getMyNews()),
+                count(() -> newsService.searchNews("story", 0, 20).getNews()));
+    }
+
+    private long count(Supplier<List<?>> call) {
+        entityManager.clear();
+        statistics.clear();
+        assertFalse(call.get().isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int articles) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < articles; i++) {
+            News news = newsRepository.save(News.builder()
+                    .title("Story " + i)
+                    .excerpt("A story body " + i)
+                    .category(categories.get(i % categories.size()))
+                    .postedBy(editors.get(i % editors.size()))
+                    .createdAt(now.plusSeconds(i))
+                    .updatedAt(now.plusSeconds(i))
+                    .build());
+            searchIndex.index(new SearchDocument(news.getId(), news.getTitle(), news.getExcerpt()));
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,36 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.duplicate.DuplicateDetector;
+import com.redmath.newsapp.duplicate.SimHashIndex;
+import com.redmath.newsapp.news.MarkdownRenderer;
+import com.redmath.newsapp.news.NewsBodyCodec;
+import com.redmath.newsapp.news.NewsService;
+import com.redmath.newsapp.news.NewsTimelines;
+import com.redmath.newsapp.news.OffHeapBodyCache;
+import com.redmath.newsapp.revision.RevisionService;
+import com.redmath.newsapp.search.SearchIndex;
+import com.redmath.newsapp.views.TrendingNews;
+import com.redmath.newsapp.views.ViewCounter;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// NewsService with its write path on the JPA slice. The in-memory timelines, body cache and view counting
+// are mocked, so every read goes to the database.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@Import({NewsService.class, NewsBodyCodec.class, MarkdownRenderer.class, RevisionService.class, SearchIndex.class,
+        DuplicateDetector.class, SimHashIndex.class})
+@MockitoBean(types = {NewsTimelines.class, OffHeapBodyCache.class, ViewCounter.class, TrendingNews.class})
+public @interface NewsServiceSliceTest {
+
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
@@ -0,0 +1,114 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.stream.NewsStreamSubscriber;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NewsStreamSubscriberTest {
+
+    // collects sent events instead of writing to a response
+    private static class RecordingEmitter extends SseEmitter {
+        final List<Set<DataWithMediaType>> sent = new ArrayList<>();
+        boolean failing;
+        boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failing) {
+                throw new IOException("client went away");
+            }
+            sent.add(items);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+
+    // runs drain tasks only when asked, so the test can fill the queue first
+    private static class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+    }
+
+    private final List<NewsStreamSubscriber> closed = new ArrayList<>();
+
+    @Test
+    void categoryFilterMatchesOnlyItsCategory() {
+        NewsStreamSubscriber all = new NewsStreamSubscriber(new RecordingEmitter(), null, 4, NewsStreamSubscriber.Overflow.DROP_OLDEST, Runnable::run, closed::add);
+        NewsStreamSubscriber sports = new NewsStreamSubscriber(new RecordingEmitter(), 2L, 4, NewsStreamSubscriber.Overflow.DROP_OLDEST, Runnable::run, closed::add);
+
+        assertTrue(all.wants(1L));
+        assertTrue(sports.wants(2L));
+        assertFalse(sports.wants(1L));
+    }
+
+    @Test
+    void fullQueueDropsOldestEvent() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ManualExecutor executor = new ManualExecutor();
+        NewsStreamSubscriber subscriber = new NewsStreamSubscriber(emitter, null, 2, NewsStreamSubscriber.Overflow.DROP_OLDEST, executor, closed::add);
+
+        Set<ResponseBodyEmitter.DataWithMediaType> first = SseEmitter.event().id("1").build();
+        Set<ResponseBodyEmitter.DataWithMediaType> second = SseEmitter.event().id("2").build();
+        Set<ResponseBodyEmitter.DataWithMediaType> third = SseEmitter.event().id("3").build();
+        subscriber.offer(first);
+        subscriber.offer(second);
+        subscriber.offer(third);
+        executor.runAll();
+
+        assertEquals(List.of(second, third), emitter.sent);
+        assertEquals(1, subscriber.dropped());
+    }
+
+    @Test
+    void fullQueueDisconnectsWhenConfigured() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ManualExecutor executor = new ManualExecutor();
+        NewsStreamSubscriber subscriber = new NewsStreamSubscriber(emitter, null, 1, NewsStreamSubscriber.Overflow.DISCONNECT, executor, closed::add);
+
+        subscriber.offer(SseEmitter.event().id("1").build());
+        subscriber.offer(SseEmitter.event().id("2").build());
+
+        assertTrue(subscriber.isClosed());
+        assertTrue(emitter.completed);
+        assertEquals(List.of(subscriber), closed);
+    }
+
+    @Test
+    void failedWriteClosesSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        NewsStreamSubscriber subscriber = new NewsStreamSubscriber(emitter, null, 4, NewsStreamSubscriber.Overflow.DROP_OLDEST, Runnable::run, closed::add);
+
+        subscriber.offer(SseEmitter.event().comment("heartbeat").build());
+
+        assertTrue(subscriber.isClosed());
+        assertEquals(List.of(subscriber), closed);
+    }
+}
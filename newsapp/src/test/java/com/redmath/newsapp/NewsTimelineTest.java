@@ -0,0 +1,96 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NewsTimelineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private NewsResponse article(long id) {
+        LocalDateTime at = START.plusMinutes(id);
+        return NewsResponse.builder().id(id).title("Title " + id).excerpt("Body " + id)
+                .categoryName("World").editorName("Ed").createdAt(at.toString()).updatedAt(at.toString()).build();
+    }
+
+    // newest first, like the repository returns them
+    private List<NewsResponse> articles(long from, long to) {
+        List<NewsResponse> news = new ArrayList<>();
+        for (long id = to; id >= from; id--) {
+            news.add(article(id));
+        }
+        return news;
+    }
+
+    private List<Long> ids(NewsPageResponse page) {
+        return page.getNews().stream().map(NewsResponse::getId).toList();
+    }
+
+    @Test
+    void completeTimelineServesEveryPage() {
+        NewsTimeline timeline = new NewsTimeline(10, articles(1, 5));
+
+        NewsPageResponse first = timeline.page(null, 3).orElseThrow();
+        NewsPageResponse second = timeline.page(NewsCursor.decode(first.getNextCursor()), 3).orElseThrow();
+
+        assertEquals(List.of(5L, 4L, 3L), ids(first));
+        assertEquals(List.of(2L, 1L), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void fullTimelineFallsBackPastItsLastArticle() {
+        NewsTimeline timeline = new NewsTimeline(4, articles(1, 4));
+
+        NewsPageResponse first = timeline.page(null, 4).orElseThrow();
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(first));
+        assertNotNull(first.getNextCursor());
+        assertTrue(timeline.page(NewsCursor.decode(first.getNextCursor()), 4).isEmpty());
+        assertTrue(timeline.page(null, 5).isEmpty());
+    }
+
+    @Test
+    void createdArticleGoesToTheFrontAndOldestIsDropped() {
+        NewsTimeline timeline = new NewsTimeline(3, articles(1, 3));
+
+        timeline.upsert(article(4));
+
+        assertEquals(3, timeline.size());
+        assertEquals(List.of(4L, 3L, 2L), ids(timeline.page(null, 3).orElseThrow()));
+    }
+
+    @Test
+    void updateReplacesInPlaceAndRemoveDropsArticle() {
+        NewsTimeline timeline = new NewsTimeline(10, articles(1, 3));
+        NewsResponse edited = article(2);
+        edited.setTitle("Edited");
+
+        timeline.upsert(edited);
+        timeline.remove(3);
+
+        NewsPageResponse page = timeline.page(null, 10).orElseThrow();
+        assertEquals(List.of(2L, 1L), ids(page));
+        assertEquals("Edited", page.getNews().get(0).getTitle());
+    }
+
+    @Test
+    void olderArticleIsNotInsertedIntoIncompleteTimeline() {
+        NewsTimeline timeline = new NewsTimeline(2, articles(5, 6));
+        timeline.remove(5);
+
+        timeline.upsert(article(1));
+
+        assertEquals(1, timeline.size());
+        assertTrue(timeline.page(null, 2).isEmpty());
+    }
+}
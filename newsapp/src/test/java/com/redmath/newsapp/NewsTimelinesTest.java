@@ -0,0 +1,61 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsTimelines;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsTimelinesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private NewsResponse article(long id) {
+        LocalDateTime at = START.plusMinutes(id);
+        return NewsResponse.builder().id(id).title("Title " + id).createdAt(at.toString()).updatedAt(at.toString()).build();
+    }
+
+    private List<Long> ids(NewsTimelines timelines) {
+        return timelines.global(null, 10).orElseThrow().getNews().stream().map(NewsResponse::getId).toList();
+    }
+
+    @Test
+    void changesCommittedDuringWarmUpAreReplayed() {
+        NewsTimelines timelines = new NewsTimelines(newsRepository, categoryRepository);
+        ReflectionTestUtils.setField(timelines, "capacity", 10);
+        when(categoryRepository.findAll()).thenReturn(List.of(Category.builder().id(1L).name("World").build()));
+        when(newsRepository.findCategoryFeed(eq(1L), isNull(), isNull(), any())).thenReturn(List.of(article(2), article(1)));
+        // the global query reads a snapshot taken before article 2 was deleted and article 3 was created
+        when(newsRepository.findFeed(isNull(), isNull(), any())).thenAnswer(invocation -> {
+            timelines.onNewsChanged(NewsChangedEvent.deleted(2L, 1L));
+            timelines.onNewsChanged(NewsChangedEvent.created(1L, article(3), "body"));
+            return List.of(article(2), article(1));
+        });
+
+        timelines.warmUp();
+
+        assertEquals(List.of(3L, 1L), ids(timelines));
+        assertEquals(List.of(3L, 1L), timelines.category(1L, null, 10).orElseThrow().getNews().stream()
+                .map(NewsResponse::getId).toList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.news.OffHeapBodyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapBodyCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OffHeapBodyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 16 slabs of 64 bytes
+        cache = new OffHeapBodyCache(1024, 64, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void bodySpanningSeveralSlabsRoundTrips() {
+        String content = "Grüße aus Zürich. ".repeat(6);
+
+        cache.put(1, "v1", content);
+
+        assertEquals(content, cache.get(1, "v1"));
+        assertEquals(128.0, cache.usedBytes());
+        assertEquals(1.0, meterRegistry.get("news.body_cache.hits").functionCounter().count());
+    }
+
+    @Test
+    void sourceAndHtmlAreKeptTogether() {
+        cache.put(1, "v1", "**Grüße**", "<p><strong>Grüße</strong></p>");
+
+        OffHeapBodyCache.CachedBody body = cache.getBody(1, "v1");
+
+        assertEquals("**Grüße**", body.content());
+        assertEquals("<p><strong>Grüße</strong></p>", body.html());
+    }
+
+    @Test
+    void otherVersionIsAMiss() {
+        cache.put(1, "v1", "old body");
+
+        assertNull(cache.get(1, "v2"));
+        assertEquals(0.0, cache.hitRatio());
+    }
+
+    @Test
+    void leastRecentlyReadBodyIsEvictedWhenFull() {
+        for (long id = 1; id <= 8; id++) {
+            cache.put(id, "v", "x".repeat(100));
+        }
+        cache.get(1, "v");
+
+        cache.put(9, "v", "y".repeat(100));
+
+        assertNotNull(cache.get(1, "v"));
+        assertNull(cache.get(2, "v"));
+        assertEquals(1.0, meterRegistry.get("news.body_cache.evictions").functionCounter().count());
+        assertEquals(1024.0, meterRegistry.get("news.body_cache.off_heap.used").gauge().value());
+    }
+
+    @Test
+    void removeReturnsSlabs() {
+        cache.put(1, "v", "body");
+
+        cache.remove(1);
+
+        assertEquals(0.0, cache.usedBytes());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void oversizedBodyIsNotCached() {
+        cache.put(1, "v", "z".repeat(1000));
+
+        assertNull(cache.get(1, "v"));
+    }
+
+    @Test
+    void closedCacheIgnoresPutsAndMissesReads() {
+        cache.put(1, "v", "body");
+        cache.close();
+
+        cache.put(2, "v", "body");
+
+        assertNull(cache.get(1, "v"));
+        assertNull(cache.get(2, "v"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.auth.AuthService;
+import com.redmath.newsapp.auth.PasswordHasher;
+import com.redmath.newsapp.auth.PasswordHasherBusyException;
+import com.redmath.newsapp.dto.RegisterRequest;
+import com.redmath.newsapp.security.JwtUtils;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PasswordHasherTest {
+
+    private PasswordHasher hasher(PasswordEncoder encoder, int cost, int threads, int queueSize) {
+        return new PasswordHasher(encoder, cost, threads, queueSize, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void changedCostRehashesOnSuccessfulLogin() {
+        String stored = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordHasher hasher = hasher(new BCryptPasswordEncoder(5), 5, 1, 4);
+
+        PasswordHasher.Verification wrong = hasher.verify("nope", stored).join();
+        PasswordHasher.Verification right = hasher.verify("secret", stored).join();
+
+        assertFalse(wrong.matches());
+        assertNull(wrong.rehash());
+        assertTrue(right.matches());
+        assertTrue(right.rehash().startsWith("$2a$05$"));
+        assertFalse(hasher.needsRehash(right.rehash()));
+        assertNull(hasher.verify("secret", right.rehash()).join().rehash());
+    }
+
+    @Test
+    void fullQueueIsRejectedAtOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHasher hasher = hasher(slow, 4, 1, 1);
+
+        CompletableFuture<String> running = hasher.encode("a");
+        started.await();
+        CompletableFuture<String> queued = hasher.encode("b");
+        assertThrows(PasswordHasherBusyException.class, () -> hasher.encode("c"));
+
+        release.countDown();
+        assertNotNull(running.join());
+        assertNotNull(queued.join());
+    }
+
+    @Test
+    void registrationIsSavedOffTheHasherPool() {
+        UserRepository userRepo = mock(UserRepository.class);
+        JwtUtils jwtUtils = mock(JwtUtils.class);
+        AtomicReference<Thread> savedOn = new AtomicReference<>();
+        when(userRepo.save(any())).thenAnswer(invocation -> {
+            savedOn.set(Thread.currentThread());
+            return invocation.getArgument(0);
+        });
+        when(jwtUtils.generateToken(any(User.class))).thenReturn("token");
+        AuthService authService = new AuthService(userRepo, hasher(new BCryptPasswordEncoder(4), 4, 1, 4),
+                mock(AuthenticationManager.class), jwtUtils);
+
+        String token = authService.register(RegisterRequest.builder().name("a").email("a@b.c").password("secret").build())
+                .join().getToken();
+
+        assertEquals("token", token);
+        assertTrue(savedOn.get().isVirtual(), savedOn.get().getName());
+        authService.shutdown();
+    }
+}
@@ -0,0 +1,161 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.NewsPageResponse;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.feed.CategorySubscriberCount;
+import com.redmath.newsapp.feed.CategorySubscriptionRepository;
+import com.redmath.newsapp.feed.PersonalFeeds;
+import com.redmath.newsapp.feed.SubscriptionChangedEvent;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsCursor;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsTimeline;
+import com.redmath.newsapp.news.NewsTimelines;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PersonalFeedsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final long READER = 7L;
+    private static final long ORDINARY = 1L;
+    private static final long POPULAR = 2L;
+
+    @Mock
+    private CategorySubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private NewsTimelines newsTimelines;
+
+    private PersonalFeeds personalFeeds;
+
+    @BeforeEach
+    void setUp() {
+        personalFeeds = new PersonalFeeds(subscriptionRepository, newsRepository, newsTimelines);
+        ReflectionTestUtils.setField(personalFeeds, "capacity", 10);
+        ReflectionTestUtils.setField(personalFeeds, "maxTimelines", 100);
+        ReflectionTestUtils.setField(personalFeeds, "popularThreshold", 1000L);
+        ReflectionTestUtils.invokeMethod(personalFeeds, "init");
+        when(subscriptionRepository.countByCategory()).thenReturn(List.of(new CategorySubscriberCount(POPULAR, 5000)));
+        personalFeeds.loadSubscriberCounts();
+    }
+
+    private NewsResponse article(long id) {
+        LocalDateTime at = START.plusMinutes(id);
+        return NewsResponse.builder().id(id).title("Title " + id).createdAt(at.toString()).updatedAt(at.toString()).build();
+    }
+
+    private List<Long> ids(NewsPageResponse page) {
+        return page.getNews().stream().map(NewsResponse::getId).toList();
+    }
+
+    @Test
+    void ordinaryCategoryIsPushedIntoLoadedTimeline() {
+        when(subscriptionRepository.findCategoryIdsByUserId(READER)).thenReturn(List.of(ORDINARY));
+        when(newsRepository.findCategoriesFeed(eq(Set.of(ORDINARY)), isNull(), isNull(), any()))
+                .thenReturn(List.of(article(2), article(1)));
+
+        assertEquals(List.of(2L, 1L), ids(personalFeeds.page(READER, null, 5)));
+        personalFeeds.onNewsChanged(NewsChangedEvent.created(ORDINARY, article(3), "body"));
+
+        assertEquals(List.of(3L, 2L, 1L), ids(personalFeeds.page(READER, null, 5)));
+        // the second read came from memory
+        verify(newsRepository, times(1)).findCategoriesFeed(any(), any(), any(), any());
+    }
+
+    @Test
+    void popularCategoryIsMergedOnRead() {
+        when(subscriptionRepository.findCategoryIdsByUserId(READER)).thenReturn(List.of(ORDINARY, POPULAR));
+        when(newsRepository.findCategoriesFeed(eq(Set.of(ORDINARY)), isNull(), isNull(), any()))
+                .thenReturn(List.of(article(4), article(1)));
+        NewsTimeline shared = new NewsTimeline(10, List.of(article(5), article(3), article(2)));
+        when(newsTimelines.category(eq(POPULAR), any(), anyInt()))
+                .thenAnswer(invocation -> shared.page(invocation.getArgument(1), invocation.getArgument(2)));
+
+        personalFeeds.onNewsChanged(NewsChangedEvent.created(POPULAR, article(6), "body"));
+        shared.upsert(article(6));
+
+        NewsPageResponse first = personalFeeds.page(READER, null, 3);
+        NewsPageResponse second = personalFeeds.page(READER, NewsCursor.decode(first.getNextCursor()), 3);
+
+        assertEquals(List.of(6L, 5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L, 1L), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void articleMovedToAnotherCategoryLeavesTheFollowersTimelines() {
+        when(subscriptionRepository.findCategoryIdsByUserId(READER)).thenReturn(List.of(ORDINARY));
+        when(newsRepository.findCategoriesFeed(eq(Set.of(ORDINARY)), isNull(), isNull(), any()))
+                .thenReturn(List.of(article(2), article(1)));
+        personalFeeds.page(READER, null, 5);
+
+        NewsResponse edited = article(1);
+        edited.setTitle("Edited");
+        personalFeeds.onNewsChanged(NewsChangedEvent.updated(ORDINARY, edited, "body"));
+        assertEquals("Edited", personalFeeds.page(READER, null, 5).getNews().get(1).getTitle());
+
+        personalFeeds.onNewsChanged(NewsChangedEvent.updated(ORDINARY, 3L, article(2), "body"));
+        assertEquals(List.of(1L), ids(personalFeeds.page(READER, null, 5)));
+    }
+
+    @Test
+    void subscriptionChangeRebuildsTimeline() {
+        when(subscriptionRepository.findCategoryIdsByUserId(READER)).thenReturn(List.of()).thenReturn(List.of(ORDINARY));
+        when(newsRepository.findCategoriesFeed(eq(Set.of(ORDINARY)), isNull(), isNull(), any()))
+                .thenReturn(List.of(article(1)));
+
+        assertTrue(personalFeeds.page(READER, null, 5).getNews().isEmpty());
+        personalFeeds.onSubscriptionChanged(new SubscriptionChangedEvent(READER, ORDINARY, true));
+
+        assertEquals(List.of(1L), ids(personalFeeds.page(READER, null, 5)));
+    }
+
+    @Test
+    void leastRecentlyReadTimelineIsEvictedAndUnfollowed() {
+        ReflectionTestUtils.setField(personalFeeds, "maxTimelines", 2);
+        ReflectionTestUtils.invokeMethod(personalFeeds, "init");
+        when(subscriptionRepository.findCategoryIdsByUserId(anyLong())).thenReturn(List.of(ORDINARY));
+        when(newsRepository.findCategoriesFeed(eq(Set.of(ORDINARY)), isNull(), isNull(), any())).thenReturn(List.of(article(1)));
+
+        personalFeeds.page(READER, null, 5);
+        personalFeeds.page(8L, null, 5);
+        personalFeeds.page(READER, null, 5);
+        personalFeeds.page(9L, null, 5);
+
+        Map<?, ?> followers = (Map<?, ?>) ReflectionTestUtils.getField(personalFeeds, "followers");
+        assertEquals(2, personalFeeds.size());
+        assertEquals(Set.of(READER, 9L), followers.get(ORDINARY));
+    }
+
+    @Test
+    void deepPagesFallBackToTheDatabase() {
+        when(subscriptionRepository.findCategoryIdsByUserId(READER)).thenReturn(List.of(ORDINARY));
+        when(newsRepository.findCategoriesFeed(any(), any(), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(1) == null
+                        ? LongStream.iterate(30, id -> id - 1).limit(10).mapToObj(this::article).toList()
+                        : List.of(article(20)));
+
+        NewsCursor past = new NewsCursor(START.plusMinutes(21), 21);
+        assertEquals(List.of(20L), ids(personalFeeds.page(READER, past, 5)));
+        assertNull(personalFeeds.page(READER, past, 5).getNextCursor());
+    }
+}
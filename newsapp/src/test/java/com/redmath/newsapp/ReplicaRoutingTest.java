@@ -0,0 +1,102 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.replica.ReplicaRouting;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingTest {
+
+    private static final String SERVICE_READ = "com.redmath.newsapp.news.NewsService.getAllNews";
+
+    private ReplicaRouting routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRouting(60_000);
+        routing.markInSync();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    private void inTransaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void loginAs(long id) {
+        UserPrincipal user = new UserPrincipal(id, "u" + id + "@x.com", "User " + id, Role.EDITOR);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @Test
+    void readOnlyServiceTransactionUsesReplica() {
+        inTransaction(SERVICE_READ, true);
+        assertTrue(routing.useReplica());
+    }
+
+    @Test
+    void writesAndRepositoryDefaultsUsePrimary() {
+        inTransaction("com.redmath.newsapp.news.NewsService.create", false);
+        assertFalse(routing.useReplica());
+
+        inTransaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findByEmail", true);
+        assertFalse(routing.useReplica());
+    }
+
+    @Test
+    void replicaIsNotUsedBeforeFirstCopy() {
+        ReplicaRouting fresh = new ReplicaRouting(60_000);
+        inTransaction(SERVICE_READ, true);
+        assertFalse(fresh.useReplica());
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() {
+        loginAs(1);
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction("com.redmath.newsapp.news.NewsService.create", false);
+        long version = routing.writeVersion();
+        routing.useReplica();
+        // a round copying now would not see the write yet
+        assertEquals(version, routing.writeVersion());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(version + 1, routing.writeVersion());
+
+        inTransaction(SERVICE_READ, true);
+        assertFalse(routing.useReplica());
+
+        loginAs(2);
+        assertTrue(routing.useReplica());
+    }
+
+    @Test
+    void stickinessExpires() {
+        ReplicaRouting shortLived = new ReplicaRouting(-1);
+        shortLived.markInSync();
+        loginAs(1);
+        inTransaction("com.redmath.newsapp.news.NewsService.create", false);
+        shortLived.useReplica();
+
+        inTransaction(SERVICE_READ, true);
+        assertTrue(shortLived.useReplica());
+    }
+}
@@ -0,0 +1,181 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsRequest;
+import com.redmath.newsapp.dto.RevisionDiffResponse;
+import com.redmath.newsapp.dto.RevisionResponse;
+import com.redmath.newsapp.news.NewsBodyRepository;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.news.NewsService;
+import com.redmath.newsapp.revision.NewsRevision;
+import com.redmath.newsapp.revision.NewsRevisionRepository;
+import com.redmath.newsapp.revision.RevisionService;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserPrincipal;
+import com.redmath.newsapp.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NewsServiceSliceTest(properties = "app.revisions.max-deltas=3")
+public class RevisionServiceTest {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private RevisionService revisionService;
+
+    @Autowired
+    private NewsRevisionRepository revisionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsBodyRepository newsBodyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category category;
+    private Authentication editorAuthentication;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(Category.builder().name("World").build());
+        User editor = userRepository.save(User.builder().name("Editor").email("editor@example.com")
+                .password("hash").role(Role.EDITOR).build());
+        editorAuthentication = new UsernamePasswordAuthenticationToken(
+                UserPrincipal.from(editor), null, editor.getRole().getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(editorAuthentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void everyRevisionIsRebuiltFromASnapshotAndAtMostMaxDeltas() {
+        List<String> versions = new ArrayList<>();
+        long id = write(versions, 10);
+
+        List<NewsRevision> stored = revisionRepository.findChain(id, 1, 10);
+        assertEquals(List.of(true, false, false, false, true, false, false, false, true, false),
+                stored.stream().map(NewsRevision::isSnapshot).toList());
+        assertTrue(stored.stream().allMatch(revision -> revision.getDepth() <= 3));
+        for (int revision = 1; revision <= 10; revision++) {
+            assertEquals(versions.get(revision - 1), revisionService.get(id, revision).getContent());
+        }
+    }
+
+    @Test
+    void deltasStoreFarLessThanFullCopies() {
+        long id = write(new ArrayList<>(), 4);
+
+        List<NewsRevision> stored = revisionRepository.findChain(id, 1, 4);
+        int snapshotSize = stored.get(0).getData().length;
+        assertTrue(stored.subList(1, 4).stream().allMatch(revision -> revision.getData().length < snapshotSize / 10));
+    }
+
+    @Test
+    void diffShowsTheEditAndRestoreAddsARevision() {
+        List<String> versions = new ArrayList<>();
+        long id = write(versions, 3);
+
+        RevisionDiffResponse diff = revisionService.diff(id, 1, 2);
+        assertTrue(diff.getChanges().stream().anyMatch(change -> change.getOp().equals("INSERT") && change.getText().contains("Update 1")));
+
+        newsService.restoreRevision(id, 1);
+        entityManager.flush();
+
+        List<RevisionResponse> history = revisionService.list(id);
+        assertEquals(4, history.get(0).getRevision());
+        assertEquals(versions.get(0), newsService.getNews(id).getContent());
+    }
+
+    // commits for real, so the edits contend for the article row; everything is deleted again afterwards
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentEditsAreRecordedOneAfterTheOther() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            String draft = "Long enough that edits are stored as deltas. ".repeat(50);
+            long id = newsService.create(NewsRequest.builder().title("Story").content(draft).categoryId(category.getId()).build()).getId();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> edits = new ArrayList<>();
+            for (int i = 1; i <= 4; i++) {
+                String content = "Edit " + i + ". " + draft;
+                edits.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(editorAuthentication);
+                    start.await();
+                    return newsService.updateNews(id, NewsRequest.builder().title("Story").content(content).build());
+                }));
+            }
+            start.countDown();
+            for (Future<?> edit : edits) {
+                edit.get();
+            }
+
+            assertEquals(List.of(5, 4, 3, 2, 1), revisionService.list(id).stream().map(RevisionResponse::getRevision).toList());
+            // each delta was taken against the text the edit before it saved, so every draft rebuilds exactly
+            assertEquals(IntStream.rangeClosed(1, 4).mapToObj(i -> "Edit " + i + ". " + draft).collect(Collectors.toSet()),
+                    IntStream.rangeClosed(2, 5).mapToObj(revision -> revisionService.get(id, revision).getContent()).collect(Collectors.toSet()));
+        } finally {
+            executor.shutdownNow();
+            revisionRepository.deleteAll();
+            newsBodyRepository.deleteAll();
+            newsRepository.deleteAll();
+            userRepository.deleteAll();
+            categoryRepository.deleteAll();
+        }
+    }
+
+    // one long article, then count - 1 small edits appended to it
+    private long write(List<String> versions, int count) {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 700; i++) {
+            text.append("word").append(random.nextInt(5000)).append(i % 15 == 14 ? ".\n\n" : " ");
+        }
+        String content = text.toString();
+        versions.add(content);
+        long id = newsService.create(NewsRequest.builder().title("Story").content(content).categoryId(category.getId()).build()).getId();
+        for (int i = 1; i < count; i++) {
+            content = content + "\n\nUpdate " + i + " with fresh details.";
+            versions.add(content);
+            newsService.updateNews(id, NewsRequest.builder().title("Story v" + i).content(content).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+}
@@ -0,0 +1,117 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.category.Category;
+import com.redmath.newsapp.category.CategoryRepository;
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.rss.RssFeeds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RssFeedsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final long WORLD = 1L;
+    private static final long SPORTS = 2L;
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private RssFeeds rssFeeds;
+
+    @BeforeEach
+    void setUp() {
+        rssFeeds = new RssFeeds(newsRepository, categoryRepository);
+        ReflectionTestUtils.setField(rssFeeds, "size", 2);
+        ReflectionTestUtils.setField(rssFeeds, "title", "News App");
+        ReflectionTestUtils.setField(rssFeeds, "baseUrl", "https://news.example");
+    }
+
+    private NewsResponse article(long id, String title) {
+        LocalDateTime at = START.plusMinutes(id);
+        return NewsResponse.builder().id(id).title(title).excerpt("Excerpt " + id).categoryName("World")
+                .createdAt(at.toString()).updatedAt(at.toString()).build();
+    }
+
+    private void worldFeed(NewsResponse... news) {
+        when(newsRepository.findCategoryFeed(eq(WORLD), isNull(), isNull(), any())).thenReturn(List.of(news));
+    }
+
+    @Test
+    void feedIsWrittenOnceAsRss() {
+        when(categoryRepository.findById(WORLD)).thenReturn(Optional.of(Category.builder().id(WORLD).name("World").build()));
+        worldFeed(article(2, "Rates & markets"), article(1, "First"));
+
+        RssFeeds.Feed feed = rssFeeds.category(WORLD);
+        String xml = new String(feed.xml(), StandardCharsets.UTF_8);
+
+        assertTrue(xml.contains("<title>News App - World</title>"));
+        assertTrue(xml.contains("<title>Rates &amp; markets</title>"));
+        assertTrue(xml.contains("<guid isPermaLink=\"true\">https://news.example/news/2</guid>"));
+        assertTrue(xml.indexOf("/news/2<") < xml.indexOf("/news/1<"));
+        assertTrue(feed.etag().startsWith("\""));
+        assertSame(feed, rssFeeds.category(WORLD));
+        verify(newsRepository, times(1)).findCategoryFeed(any(), any(), any(), any());
+    }
+
+    @Test
+    void onlyChangesInScopeRebuildTheFeed() {
+        when(categoryRepository.findById(WORLD)).thenReturn(Optional.of(Category.builder().id(WORLD).name("World").build()));
+        worldFeed(article(3, "Third"), article(2, "Second"));
+        RssFeeds.Feed first = rssFeeds.category(WORLD);
+
+        // another category, an article too old for the full feed and a deletion outside it change nothing
+        rssFeeds.onNewsChanged(NewsChangedEvent.created(SPORTS, article(9, "Cup final"), "body"));
+        rssFeeds.onNewsChanged(NewsChangedEvent.updated(WORLD, article(1, "Old news"), "body"));
+        rssFeeds.onNewsChanged(NewsChangedEvent.deleted(1, WORLD));
+        assertSame(first, rssFeeds.category(WORLD));
+
+        worldFeed(article(4, "Fourth"), article(3, "Third"));
+        rssFeeds.onNewsChanged(NewsChangedEvent.created(WORLD, article(4, "Fourth"), "body"));
+        RssFeeds.Feed second = rssFeeds.category(WORLD);
+
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(new String(second.xml(), StandardCharsets.UTF_8).contains("Fourth"));
+        verify(newsRepository, times(2)).findCategoryFeed(any(), any(), any(), any());
+    }
+
+    @Test
+    void unchangedDocumentKeepsItsValidators() {
+        when(newsRepository.findFeed(isNull(), isNull(), any())).thenReturn(List.of(article(1, "First")));
+        RssFeeds.Feed first = rssFeeds.global();
+
+        // an edit of the body alone leaves title and excerpt as they were
+        rssFeeds.onNewsChanged(NewsChangedEvent.updated(WORLD, article(1, "First"), "new body"));
+        RssFeeds.Feed second = rssFeeds.global();
+
+        assertNotSame(first, second);
+        assertEquals(first.etag(), second.etag());
+        assertEquals(first.lastModified(), second.lastModified());
+    }
+
+    @Test
+    void unknownCategoryIsRejected() {
+        when(categoryRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> rssFeeds.category(42));
+        verifyNoInteractions(newsRepository);
+    }
+}
@@ -0,0 +1,69 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.search.SearchDocument;
+import com.redmath.newsapp.search.SearchHits;
+import com.redmath.newsapp.search.SearchIndex;
+import com.redmath.newsapp.search.TextAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex(3.0f, 1.2f, 0.75f);
+        searchIndex.index(new SearchDocument(1, "Election results announced", "The votes were counted overnight."));
+        searchIndex.index(new SearchDocument(2, "Weather update", "Heavy rain expected; the election rally was moved indoors."));
+        searchIndex.index(new SearchDocument(3, "Football", "The team is running drills before the final."));
+    }
+
+    @Test
+    void analyzerLowercasesSplitsAndStems() {
+        assertEquals(List.of("run", "drill", "stop", "election"), TextAnalyzer.analyze("Running DRILLS, stopped; election!"));
+    }
+
+    @Test
+    void titleMatchOutranksBodyMatch() {
+        SearchHits hits = searchIndex.search("election", 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L, 2L), hits.ids());
+    }
+
+    @Test
+    void stemmedQueryMatchesInflectedForms() {
+        assertEquals(List.of(3L), searchIndex.search("runs", 0, 10).ids());
+    }
+
+    @Test
+    void resultsArePaginated() {
+        assertEquals(List.of(1L), searchIndex.search("election", 0, 1).ids());
+        assertEquals(List.of(2L), searchIndex.search("election", 1, 1).ids());
+        assertTrue(searchIndex.search("election", 2, 1).ids().isEmpty());
+    }
+
+    @Test
+    void pagePastTheLastHitIsEmptyEvenAtTheLargestOffset() {
+        SearchHits hits = searchIndex.search("election", Integer.MAX_VALUE, 100);
+
+        assertEquals(2, hits.total());
+        assertTrue(hits.ids().isEmpty());
+        assertEquals(List.of(2L), searchIndex.search("election", 1, Integer.MAX_VALUE).ids());
+    }
+
+    @Test
+    void updatesAndRemovalsAreIncremental() {
+        searchIndex.index(new SearchDocument(3, "Election night football", "Match postponed."));
+        searchIndex.remove(1);
+
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of(3L, 2L), searchIndex.search("election", 0, 10).ids());
+        assertTrue(searchIndex.search("drills", 0, 10).ids().isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.duplicate.DuplicateDetector;
+import com.redmath.newsapp.duplicate.SimHash;
+import com.redmath.newsapp.duplicate.SimHashIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimHashTest {
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("word").append(random.nextInt(2000)).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Test
+    void smallEditsStayCloseAndOtherTextsDoNot() {
+        String story = words(new Random(1), 400);
+        String edited = story.replaceFirst("word\\d+ ", "breaking ") + "Reporting by wire staff.";
+
+        assertTrue(SimHash.distance(SimHash.of(story), SimHash.of(edited)) <= 3);
+        assertTrue(SimHash.distance(SimHash.of(story), SimHash.of(words(new Random(2), 400))) > 10);
+        // case and punctuation are analyzed away
+        assertEquals(SimHash.of("Markets rally, again"), SimHash.of("markets RALLY again!"));
+    }
+
+    @Test
+    void indexFindsEveryHashWithinDistanceInSomeBand() {
+        SimHashIndex index = new SimHashIndex(3, 100);
+        long original = new Random(3).nextLong();
+        index.add(1, original);
+        index.add(2, ~original);
+
+        // three flipped bits spread over different bands, and three in the same band
+        assertEquals(1L, index.nearest(original ^ (1L | 1L << 20 | 1L << 40)).id());
+        assertEquals(3, index.nearest(original ^ 0b111L).distance());
+        assertNull(index.nearest(original ^ 0b1111L));
+    }
+
+    @Test
+    void closestMatchWinsAndTiesGoToTheOlderArticle() {
+        SimHashIndex index = new SimHashIndex(3, 100);
+        index.add(5, 0b11L);
+        index.add(7, 0b1L);
+        index.add(9, 0b1L);
+
+        assertEquals(new SimHashIndex.Match(7, 0), index.nearest(0b1L));
+    }
+
+    @Test
+    void oldestHashesAreEvictedAndRemovedOnesAreGone() {
+        SimHashIndex index = new SimHashIndex(3, 2);
+        index.add(1, 100L);
+        index.add(2, 200L << 32);
+        index.add(3, 300L << 48);
+
+        assertEquals(2, index.size());
+        assertNull(index.nearest(100L));
+        index.remove(2);
+        assertNull(index.nearest(200L << 32));
+        assertEquals(3L, index.nearest(300L << 48).id());
+    }
+
+    @Test
+    void nothingIsCheckedUntilTheIndexIsLoaded() {
+        SimHashIndex index = new SimHashIndex(3, 100);
+        DuplicateDetector detector = new DuplicateDetector(index);
+        ReflectionTestUtils.setField(detector, "policy", DuplicateDetector.Policy.FLAG);
+        index.add(1, 42L);
+
+        assertNull(detector.check(42L, 100));
+        index.markReady();
+        assertEquals(1L, detector.check(42L, 100));
+    }
+}
@@ -0,0 +1,115 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.related.ArticleTerms;
+import com.redmath.newsapp.related.TfIdfModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TfIdfModelTest {
+
+    private static List<ArticleTerms> archive() {
+        return List.of(
+                ArticleTerms.of(1, "Central bank raises interest rates", "The central bank raised interest rates again to fight inflation.", 3),
+                ArticleTerms.of(2, "Inflation slows after rate rise", "Inflation slowed this month after the central bank rate rise.", 3),
+                ArticleTerms.of(3, "Local team wins the cup final", "The local football team won the cup final in extra time.", 3),
+                ArticleTerms.of(4, "Cup final tickets sold out", "Tickets for the football cup final sold out within an hour.", 3),
+                ArticleTerms.of(5, "New telescope images", "Astronomers got first images of distant galaxies from a space telescope.", 3));
+    }
+
+    private static TfIdfModel computed() {
+        TfIdfModel model = new TfIdfModel(2, 20, 0.1);
+        model.load(archive());
+        model.computeAll();
+        return model;
+    }
+
+    private static List<Long> ids(List<TfIdfModel.Neighbour> neighbours) {
+        return neighbours.stream().map(TfIdfModel.Neighbour::id).toList();
+    }
+
+    @Test
+    void mostSimilarArticlesComeFirst() {
+        TfIdfModel model = computed();
+
+        assertEquals(2L, model.neighbours(1).get(0).id());
+        assertEquals(4L, model.neighbours(3).get(0).id());
+        assertEquals(3L, model.neighbours(4).get(0).id());
+        // articles sharing no term are never related
+        assertTrue(model.neighbours(5).isEmpty());
+        assertFalse(ids(model.neighbours(1)).contains(5L));
+    }
+
+    @Test
+    void scoresAreCosinesInDescendingOrder() {
+        List<TfIdfModel.Neighbour> neighbours = computed().neighbours(3);
+
+        assertTrue(neighbours.get(0).score() <= 1.0001f);
+        for (int i = 1; i < neighbours.size(); i++) {
+            assertTrue(neighbours.get(i - 1).score() >= neighbours.get(i).score());
+        }
+    }
+
+    @Test
+    void foldedInArticleGetsNeighboursAndJoinsTheirLists() {
+        TfIdfModel model = computed();
+
+        Map<Long, List<TfIdfModel.Neighbour>> changed = model.add(
+                ArticleTerms.of(6, "Cup final goes to extra time", "The cup final went to extra time before the local team won.", 3));
+
+        assertEquals(3L, changed.get(6L).get(0).id());
+        assertTrue(changed.containsKey(3L));
+        assertTrue(ids(model.neighbours(3)).contains(6L));
+        assertEquals(6, model.size());
+    }
+
+    @Test
+    void updatedArticleIsReplaced() {
+        TfIdfModel model = computed();
+
+        model.add(ArticleTerms.of(5, "Telescope spots galaxies", "Astronomers see galaxies far beyond our own.", 3));
+
+        assertEquals(5, model.size());
+        assertTrue(model.neighbours(5).isEmpty());
+    }
+
+    @Test
+    void removedArticleDropsOutOfLists() {
+        TfIdfModel model = computed();
+
+        model.remove(4);
+
+        assertEquals(4, model.size());
+        assertTrue(model.neighbours(4).isEmpty());
+        Map<Long, List<TfIdfModel.Neighbour>> changed = model.add(
+                ArticleTerms.of(7, "Cup final replay", "The cup final replay is set for next week.", 3));
+        assertFalse(ids(changed.get(3L)).contains(4L));
+    }
+
+    @Test
+    void postingsDoNotGrowWhenTheSameArticleIsEditedOverAndOver() {
+        TfIdfModel model = computed();
+        int before = postingEntries(model);
+
+        for (int edit = 0; edit < 1000; edit++) {
+            model.add(ArticleTerms.of(4, "Cup final tickets sold out", "Tickets for the football cup final sold out within an hour.", 3));
+        }
+
+        assertTrue(postingEntries(model) <= 2 * before, "postings grew to " + postingEntries(model));
+        assertEquals(3L, model.neighbours(4).get(0).id());
+        assertEquals(4L, model.neighbours(3).get(0).id());
+    }
+
+    private static int postingEntries(TfIdfModel model) {
+        Object[] postings = (Object[]) ReflectionTestUtils.getField(model, "postings");
+        return Arrays.stream(postings).filter(Objects::nonNull)
+                .mapToInt(posting -> (int) ReflectionTestUtils.getField(posting, "size")).sum();
+    }
+}
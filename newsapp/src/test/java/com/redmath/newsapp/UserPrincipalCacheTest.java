@@ -0,0 +1,140 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserPrincipal;
+import com.redmath.newsapp.user.UserPrincipalCache;
+import com.redmath.newsapp.user.UserPrincipalListener;
+import com.redmath.newsapp.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserPrincipalCache userPrincipalCache;
+
+    private User editor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userPrincipalCache, "maxSize", 2);
+        ReflectionTestUtils.setField(userPrincipalCache, "ttlMs", 60000L);
+        ReflectionTestUtils.invokeMethod(userPrincipalCache, "init");
+
+        editor = User.builder().id(1L).email("editor@example.com").name("Editor").password("hash").role(Role.EDITOR).build();
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        when(userRepository.findByEmail("editor@example.com")).thenReturn(Optional.of(editor));
+
+        UserPrincipal first = userPrincipalCache.get("editor@example.com").orElseThrow();
+        UserPrincipal second = userPrincipalCache.get("editor@example.com").orElseThrow();
+
+        assertEquals(new UserPrincipal(1L, "editor@example.com", "Editor", Role.EDITOR), first);
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmail("editor@example.com");
+    }
+
+    @Test
+    void evictByIdReloadsChangedRole() {
+        when(userRepository.findByEmail("editor@example.com")).thenReturn(Optional.of(editor));
+        userPrincipalCache.get("editor@example.com");
+
+        editor.setRole(Role.ADMIN);
+        userPrincipalCache.evict(1L);
+
+        assertEquals(Role.ADMIN, userPrincipalCache.get("editor@example.com").orElseThrow().role());
+        verify(userRepository, times(2)).findByEmail("editor@example.com");
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userPrincipalCache.get("missing@example.com").isEmpty());
+        assertEquals(0, userPrincipalCache.size());
+    }
+
+    @Test
+    void cacheStaysWithinMaxSize() {
+        for (int i = 0; i < 5; i++) {
+            String email = "user" + i + "@example.com";
+            when(userRepository.findByEmail(email))
+                    .thenReturn(Optional.of(User.builder().id(i).email(email).name("U" + i).role(Role.USER).build()));
+            userPrincipalCache.get(email);
+        }
+
+        assertTrue(userPrincipalCache.size() <= 2);
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvictedFirst() {
+        for (int i = 0; i < 3; i++) {
+            String email = "user" + i + "@example.com";
+            lenient().when(userRepository.findByEmail(email))
+                    .thenReturn(Optional.of(User.builder().id(i).email(email).name("U" + i).role(Role.USER).build()));
+        }
+        userPrincipalCache.get("user0@example.com");
+        userPrincipalCache.get("user1@example.com");
+        userPrincipalCache.get("user0@example.com");
+        userPrincipalCache.get("user2@example.com");
+
+        userPrincipalCache.get("user0@example.com");
+        userPrincipalCache.get("user1@example.com");
+
+        verify(userRepository, times(1)).findByEmail("user0@example.com");
+        verify(userRepository, times(2)).findByEmail("user1@example.com");
+    }
+
+    @Test
+    void rowReadBeforeAnEvictionIsNotCached() {
+        // the role changes and is evicted while this lookup still holds the old row
+        when(userRepository.findByEmail("editor@example.com")).thenAnswer(invocation -> {
+            User old = User.builder().id(1L).email("editor@example.com").name("Editor").role(Role.ADMIN).build();
+            userPrincipalCache.evict(1L);
+            return Optional.of(old);
+        });
+
+        assertEquals(Role.ADMIN, userPrincipalCache.get("editor@example.com").orElseThrow().role());
+        assertEquals(0, userPrincipalCache.size());
+    }
+
+    @Test
+    void listenerEvictsOnlyOnceTheChangeIsCommitted() {
+        when(userRepository.findByEmail("editor@example.com")).thenReturn(Optional.of(editor));
+        userPrincipalCache.get("editor@example.com");
+        UserPrincipalListener listener = new UserPrincipalListener(
+                new StaticListableBeanFactory(Map.of("userPrincipalCache", userPrincipalCache)).getBeanProvider(UserPrincipalCache.class));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onChange(editor);
+            assertEquals(1, userPrincipalCache.size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, userPrincipalCache.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
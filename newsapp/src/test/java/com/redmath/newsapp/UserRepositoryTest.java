@@ -0,0 +1,48 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.UserSummaryResponse;
+import com.redmath.newsapp.user.Role;
+import com.redmath.newsapp.user.User;
+import com.redmath.newsapp.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(User.builder().name("editor" + i).email("editor" + i + "@x.com").password("hash").role(Role.EDITOR).build());
+            userRepository.save(User.builder().name("user" + i).email("user" + i + "@x.com").password("hash").role(Role.USER).build());
+        }
+    }
+
+    @Test
+    void summariesOnlyHoldUsersOfTheRole() {
+        List<UserSummaryResponse> editors = userRepository.findSummariesByRole(Role.EDITOR, PageRequest.of(0, 20));
+
+        assertEquals(5, editors.size());
+        assertTrue(editors.stream().allMatch(editor -> editor.getName().startsWith("editor")));
+        assertEquals("editor0@x.com", editors.get(0).getEmail());
+    }
+
+    @Test
+    void summariesArePagedInIdOrder() {
+        List<UserSummaryResponse> first = userRepository.findSummariesByRole(Role.EDITOR, PageRequest.of(0, 2));
+        List<UserSummaryResponse> last = userRepository.findSummariesByRole(Role.EDITOR, PageRequest.of(2, 2));
+
+        assertEquals(List.of("editor0", "editor1"), first.stream().map(UserSummaryResponse::getName).toList());
+        assertEquals(List.of("editor4"), last.stream().map(UserSummaryResponse::getName).toList());
+    }
+}
@@ -0,0 +1,134 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.dto.NewsResponse;
+import com.redmath.newsapp.news.NewsChangedEvent;
+import com.redmath.newsapp.news.NewsRepository;
+import com.redmath.newsapp.views.TrendingNews;
+import com.redmath.newsapp.views.ViewCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    private TrendingNews trendingNews;
+    private ViewCounter viewCounter;
+
+    @BeforeEach
+    void setUp() {
+        trendingNews = new TrendingNews(newsRepository);
+        ReflectionTestUtils.setField(trendingNews, "halfLifeMs", 3600000L);
+        ReflectionTestUtils.setField(trendingNews, "candidates", 100);
+        ReflectionTestUtils.setField(trendingNews, "trendingSize", 10);
+        viewCounter = new ViewCounter(jdbcTemplate, trendingNews);
+
+        lenient().when(newsRepository.findResponsesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> NewsResponse.builder().id(id).title("News " + id).build()).toList();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesOneBatchWithAggregatedDeltas() {
+        for (int i = 0; i < 5; i++) {
+            viewCounter.record(1);
+        }
+        viewCounter.record(2);
+
+        viewCounter.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq("update news set view_count = view_count + ? where id = ?"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertTrue(batch.getValue().stream().anyMatch(delta -> delta[0].equals(5L) && delta[1].equals(1L)));
+    }
+
+    @Test
+    void nothingIsWrittenWithoutNewViews() {
+        viewCounter.record(1);
+        viewCounter.flush();
+        viewCounter.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void trendingIsRankedByScoreAndDropsDeletedArticles() {
+        viewCounter.record(1);
+        for (int i = 0; i < 3; i++) {
+            viewCounter.record(2);
+        }
+        viewCounter.flush();
+
+        assertEquals(List.of(2L, 1L), trendingNews.top(10).stream().map(NewsResponse::getId).toList());
+
+        trendingNews.onNewsChanged(NewsChangedEvent.deleted(2, 1));
+
+        assertEquals(List.of(1L), trendingNews.top(10).stream().map(NewsResponse::getId).toList());
+    }
+
+    @Test
+    void failedFlushKeepsViewsForNextInterval() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down")).thenReturn(new int[]{1});
+        viewCounter.record(1);
+
+        viewCounter.flush();
+        viewCounter.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void idleCountersAreDroppedWithoutLosingLateViews() {
+        Map<Long, LongAdder> pending = (Map<Long, LongAdder>) ReflectionTestUtils.getField(viewCounter, "pending");
+        viewCounter.record(1);
+        viewCounter.flush();
+        LongAdder counter = pending.get(1L);
+
+        viewCounter.flush();
+        // a record() that found the counter just before the flush dropped it
+        counter.increment();
+        viewCounter.flush();
+
+        assertTrue(pending.isEmpty());
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture());
+        assertArrayEquals(new Object[]{1L, 1L}, batch.getValue().get(0));
+    }
+
+    @Test
+    void decayedArticlesLeaveTrendingWithoutNewViews() {
+        viewCounter.record(1);
+        viewCounter.flush();
+        assertEquals(1, trendingNews.top(10).size());
+
+        // a day of quiet intervals
+        ReflectionTestUtils.setField(trendingNews, "lastDecay", System.currentTimeMillis() - 86_400_000L);
+        viewCounter.flush();
+
+        assertTrue(trendingNews.top(10).isEmpty());
+    }
+}
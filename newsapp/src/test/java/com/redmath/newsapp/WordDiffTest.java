@@ -0,0 +1,72 @@
+package com.redmath.newsapp;
+
+import com.redmath.newsapp.revision.WordDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordDiffTest {
+
+    @Test
+    void changedWordsShowUpAsDeleteAndInsert() {
+        List<WordDiff.Chunk> chunks = WordDiff.diff("The quick brown fox jumps.", "The quick red fox jumps.", 100);
+
+        assertEquals(List.of(
+                new WordDiff.Chunk(WordDiff.Op.EQUAL, 2, "The quick "),
+                new WordDiff.Chunk(WordDiff.Op.DELETE, 1, "brown "),
+                new WordDiff.Chunk(WordDiff.Op.INSERT, 1, "red "),
+                new WordDiff.Chunk(WordDiff.Op.EQUAL, 2, "fox jumps.")), chunks);
+    }
+
+    @Test
+    void deltaRebuildsTheNewTextExactly() {
+        String from = "  Leading space\n\n## Städte\n\nLine one.\nLine two.\t\n";
+        String to = "Leading space\n\n## Städte und Märkte\n\nLine two.\t\nLine three.\n";
+
+        String delta = WordDiff.encode(WordDiff.diff(from, to, 100));
+
+        assertEquals(to, WordDiff.apply(from, delta));
+    }
+
+    @Test
+    void randomEditsRoundTrip() {
+        Random random = new Random(42);
+        String[] words = {"alpha ", "beta ", "gamma\n", "delta ", "epsilon\n\n", "zeta "};
+        for (int round = 0; round < 200; round++) {
+            List<String> from = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                from.add(words[random.nextInt(words.length)]);
+            }
+            List<String> to = new ArrayList<>(from);
+            for (int edit = 0; edit < 10; edit++) {
+                int at = random.nextInt(to.size());
+                switch (random.nextInt(3)) {
+                    case 0 -> to.remove(at);
+                    case 1 -> to.add(at, words[random.nextInt(words.length)]);
+                    default -> to.set(at, "changed ");
+                }
+            }
+            String a = String.join("", from);
+            String b = String.join("", to);
+
+            assertEquals(b, WordDiff.apply(a, WordDiff.encode(WordDiff.diff(a, b, 1000))));
+        }
+    }
+
+    @Test
+    void tooManyEditsFallBackToReplacingTheMiddle() {
+        String from = "same " + String.join(" ", Arrays.asList("a b c d e f g h".split(" "))) + " end";
+        String to = "same " + String.join(" ", Arrays.asList("1 2 3 4 5 6 7 8".split(" "))) + " end";
+
+        List<WordDiff.Chunk> chunks = WordDiff.diff(from, to, 2);
+
+        assertEquals(List.of(WordDiff.Op.EQUAL, WordDiff.Op.DELETE, WordDiff.Op.INSERT, WordDiff.Op.EQUAL),
+                chunks.stream().map(WordDiff.Chunk::op).toList());
+        assertEquals(to, WordDiff.apply(from, WordDiff.encode(chunks)));
+    }
+}